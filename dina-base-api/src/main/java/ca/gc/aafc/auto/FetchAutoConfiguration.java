@@ -0,0 +1,47 @@
+package ca.gc.aafc.auto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+import ca.gc.aafc.dina.jpa.FetchProperties;
+import ca.gc.aafc.dina.jpa.RelationFetchIntegrator;
+
+/**
+ * Configures the batch and subselect fetching of lazy relationships from {@link FetchProperties}.
+ * Explicit spring.jpa.properties.hibernate.default_batch_fetch_size has precedence.
+ *
+ * This class is outside the ComponentScan that is using DinaBaseApiAutoConfiguration base package.
+ */
+@AutoConfiguration
+@EnableConfigurationProperties(FetchProperties.class)
+public class FetchAutoConfiguration {
+
+  @Bean
+  public HibernatePropertiesCustomizer fetchHibernatePropertiesCustomizer(FetchProperties properties) {
+    return hibernateProperties -> {
+      if (properties.getDefaultBatchFetchSize() > 0) {
+        hibernateProperties.putIfAbsent(AvailableSettings.DEFAULT_BATCH_FETCH_SIZE,
+          properties.getDefaultBatchFetchSize());
+      }
+
+      if (!properties.getRelations().isEmpty()) {
+        RelationFetchIntegrator integrator = new RelationFetchIntegrator(properties.getRelations());
+        // keep the integrators already provided (if any)
+        List<Integrator> integrators = new ArrayList<>(List.of(integrator));
+        if (hibernateProperties.get(JpaSettings.INTEGRATOR_PROVIDER) instanceof IntegratorProvider provider) {
+          integrators.addAll(provider.getIntegrators());
+        }
+        hibernateProperties.put(JpaSettings.INTEGRATOR_PROVIDER, (IntegratorProvider) () -> integrators);
+      }
+    };
+  }
+}
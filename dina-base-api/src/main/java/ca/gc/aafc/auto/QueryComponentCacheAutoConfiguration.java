@@ -0,0 +1,33 @@
+package ca.gc.aafc.auto;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+import ca.gc.aafc.dina.filter.QueryComponentCache;
+import ca.gc.aafc.dina.filter.QueryComponentCacheProperties;
+import ca.gc.aafc.dina.repository.DinaRepositoryV2;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Provides the {@link QueryComponentCache} used by {@link DinaRepositoryV2} to parse query strings.
+ * Only loaded if dina.query-component-cache.enabled is true.
+ *
+ * This class is outside the ComponentScan that is using DinaBaseApiAutoConfiguration base package.
+ */
+@Log4j2
+@AutoConfiguration
+@ConditionalOnProperty(prefix = "dina.query-component-cache", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(QueryComponentCacheProperties.class)
+public class QueryComponentCacheAutoConfiguration {
+
+  @Bean
+  public QueryComponentCache queryComponentCache(QueryComponentCacheProperties properties) {
+    QueryComponentCache cache = new QueryComponentCache(properties.getMaximumSize(),
+      properties.getExpireAfterWrite(), properties.getMaxQueryStringLength());
+    log.info("QueryComponent cache enabled (maximum size {})", properties.getMaximumSize());
+    return cache;
+  }
+}
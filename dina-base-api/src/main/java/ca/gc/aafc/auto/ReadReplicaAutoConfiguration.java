@@ -0,0 +1,78 @@
+package ca.gc.aafc.auto;
+
+import java.util.List;
+import javax.sql.DataSource;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import ca.gc.aafc.dina.datasource.ReadReplicaProperties;
+import ca.gc.aafc.dina.datasource.ReadReplicaRoutingDataSource;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Replaces the auto-configured DataSource by one routing the read-only transactions to the read replicas
+ * (see {@link ReadReplicaProperties}). Only loaded if dina.datasource.read-replica.enabled is true.
+ *
+ * The primary and the replicas use the pool settings from spring.datasource.hikari.
+ *
+ * This class is outside the ComponentScan that is using DinaBaseApiAutoConfiguration base package.
+ */
+@Log4j2
+@AutoConfiguration(before = DataSourceAutoConfiguration.class)
+@ConditionalOnProperty(prefix = "dina.datasource.read-replica", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties({ReadReplicaProperties.class, DataSourceProperties.class})
+public class ReadReplicaAutoConfiguration {
+
+  private static final String POOL_PROPERTIES_PREFIX = "spring.datasource.hikari";
+
+  @Bean
+  public ReadReplicaRoutingDataSource readReplicaRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                                   ReadReplicaProperties properties,
+                                                                   Environment environment) {
+    Binder binder = Binder.get(environment);
+
+    DataSource primary = bindPoolProperties(binder, dataSourceProperties.initializeDataSourceBuilder().build());
+    List<DataSource> replicas = properties.getReplicas().stream()
+      .map(replica -> bindPoolProperties(binder, DataSourceBuilder.create()
+        .driverClassName(dataSourceProperties.determineDriverClassName())
+        .url(replica.getUrl())
+        .username(StringUtils.defaultIfBlank(replica.getUsername(), dataSourceProperties.determineUsername()))
+        .password(StringUtils.defaultIfBlank(replica.getPassword(), dataSourceProperties.determinePassword()))
+        .build()))
+      .toList();
+
+    log.info("Read-only transactions routed to {} read replica(s)", replicas.size());
+    ReadReplicaRoutingDataSource routingDataSource =
+      new ReadReplicaRoutingDataSource(primary, replicas, properties.getMaxLag());
+    routingDataSource.startLagCheck(properties.getLagCheckInterval());
+    return routingDataSource;
+  }
+
+  /**
+   * The DataSource used by JPA (and everything else).
+   * The lazy proxy only gets the connection on first use, once the transaction read-only flag is set.
+   */
+  @Bean
+  @Primary
+  public DataSource dataSource(ReadReplicaRoutingDataSource readReplicaRoutingDataSource) {
+    return new LazyConnectionDataSourceProxy(readReplicaRoutingDataSource);
+  }
+
+  private static DataSource bindPoolProperties(Binder binder, DataSource dataSource) {
+    binder.bind(POOL_PROPERTIES_PREFIX, Bindable.ofInstance(dataSource));
+    return dataSource;
+  }
+}
@@ -0,0 +1,62 @@
+package ca.gc.aafc.auto;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+import ca.gc.aafc.dina.cache.DinaJCacheRegionFactory;
+import ca.gc.aafc.dina.cache.SecondLevelCacheMetrics;
+import ca.gc.aafc.dina.cache.SecondLevelCacheProperties;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Configures the Hibernate second-level cache from {@link SecondLevelCacheProperties}.
+ * Only loaded if hibernate-jcache and the Caffeine JCache provider are on the classpath (optional dependencies).
+ * When disabled (default), the second-level cache is explicitly turned off since a JCache provider
+ * is available on the classpath.
+ *
+ * This class is outside the ComponentScan that is using DinaBaseApiAutoConfiguration base package.
+ */
+@Log4j2
+@AutoConfiguration
+@ConditionalOnClass(name = {"org.hibernate.cache.jcache.JCacheRegionFactory",
+  SecondLevelCacheAutoConfiguration.CAFFEINE_CACHING_PROVIDER})
+@EnableConfigurationProperties(SecondLevelCacheProperties.class)
+public class SecondLevelCacheAutoConfiguration {
+
+  static final String CAFFEINE_CACHING_PROVIDER =
+    "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider";
+
+  @Bean
+  public HibernatePropertiesCustomizer secondLevelCacheHibernatePropertiesCustomizer(
+    SecondLevelCacheProperties properties) {
+    return hibernateProperties -> {
+      if (!properties.isEnabled()) {
+        hibernateProperties.putIfAbsent(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+        return;
+      }
+
+      log.info("Hibernate second-level cache enabled");
+      hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+      hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, new DinaJCacheRegionFactory(properties));
+      hibernateProperties.put(ConfigSettings.PROVIDER, CAFFEINE_CACHING_PROVIDER);
+      // caches are created by DinaJCacheRegionFactory
+      hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "create");
+      // required by the metrics
+      hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, true);
+    };
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "dina.second-level-cache", name = "enabled", havingValue = "true")
+  public SecondLevelCacheMetrics secondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+    return new SecondLevelCacheMetrics(entityManagerFactory);
+  }
+}
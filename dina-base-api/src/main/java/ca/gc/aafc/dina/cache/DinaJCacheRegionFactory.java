@@ -0,0 +1,34 @@
+package ca.gc.aafc.dina.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+
+import org.hibernate.cache.jcache.JCacheRegionFactory;
+
+import java.util.OptionalLong;
+import javax.cache.Cache;
+
+/**
+ * {@link JCacheRegionFactory} creating the missing caches (regions) from {@link SecondLevelCacheProperties}
+ * instead of an unbounded default configuration.
+ */
+public class DinaJCacheRegionFactory extends JCacheRegionFactory {
+
+  private final SecondLevelCacheProperties properties;
+
+  public DinaJCacheRegionFactory(SecondLevelCacheProperties properties) {
+    this.properties = properties;
+  }
+
+  @Override
+  protected Cache<Object, Object> createCache(String regionName) {
+    SecondLevelCacheProperties.RegionSettings settings = properties.getRegionSettings(regionName);
+
+    CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+    configuration.setMaximumSize(OptionalLong.of(settings.getMaximumSize()));
+    if (settings.getExpireAfterWrite() != null) {
+      configuration.setExpireAfterWrite(OptionalLong.of(settings.getExpireAfterWrite().toNanos()));
+    }
+    configuration.setStatisticsEnabled(true);
+    return getCacheManager().createCache(regionName, configuration);
+  }
+}
@@ -0,0 +1,61 @@
+package ca.gc.aafc.dina.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Expose the Hibernate statistics of each second-level cache region to Micrometer (actuator).
+ * Requires hibernate.generate_statistics.
+ */
+public class SecondLevelCacheMetrics implements MeterBinder {
+
+  private static final String REGION_TAG = "region";
+  private static final String RESULT_TAG = "result";
+
+  private final Statistics statistics;
+
+  public SecondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+    this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+      CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(regionName);
+      if (regionStatistics == null) {
+        continue;
+      }
+
+      counter(registry, "hibernate.second.level.cache.requests", regionName, "hit",
+        regionStatistics, CacheRegionStatistics::getHitCount);
+      counter(registry, "hibernate.second.level.cache.requests", regionName, "miss",
+        regionStatistics, CacheRegionStatistics::getMissCount);
+      FunctionCounter.builder("hibernate.second.level.cache.puts", regionStatistics,
+          CacheRegionStatistics::getPutCount)
+        .tag(REGION_TAG, regionName)
+        .register(registry);
+      Gauge.builder("hibernate.second.level.cache.size", regionStatistics,
+          CacheRegionStatistics::getElementCountInMemory)
+        .tag(REGION_TAG, regionName)
+        .register(registry);
+    }
+  }
+
+  private static void counter(MeterRegistry registry, String name, String regionName, String result,
+                              CacheRegionStatistics regionStatistics,
+                              ToDoubleFunction<CacheRegionStatistics> function) {
+    FunctionCounter.builder(name, regionStatistics, function)
+      .tag(REGION_TAG, regionName)
+      .tag(RESULT_TAG, result)
+      .register(registry);
+  }
+}
@@ -0,0 +1,55 @@
+package ca.gc.aafc.dina.cache;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the Hibernate second-level cache (in-process JCache provided by Caffeine).
+ * Disabled by default. Only the entities annotated with {@link jakarta.persistence.Cacheable} and
+ * {@link org.hibernate.annotations.Cache} are cached.
+ *
+ * Example:
+ * <pre>
+ * dina:
+ *   second-level-cache:
+ *     enabled: true
+ *     regions:
+ *       "[ca.gc.aafc.collection.entity.CollectionManagedAttribute]":
+ *         maximum-size: 500
+ *         expire-after-write: 2h
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "dina.second-level-cache")
+@Getter
+@Setter
+public class SecondLevelCacheProperties {
+
+  private boolean enabled = false;
+
+  /**
+   * Settings used by regions that are not listed in {@link #regions}.
+   */
+  private RegionSettings defaults = new RegionSettings();
+
+  /**
+   * Settings per region name. By default, the region name of an entity is its fully qualified class name
+   * and the region of its natural id is the same name followed by ##NaturalId.
+   */
+  private Map<String, RegionSettings> regions = new HashMap<>();
+
+  public RegionSettings getRegionSettings(String regionName) {
+    return regions.getOrDefault(regionName, defaults);
+  }
+
+  @Getter
+  @Setter
+  public static class RegionSettings {
+    private long maximumSize = 1000;
+    private Duration expireAfterWrite = Duration.ofHours(1);
+  }
+}
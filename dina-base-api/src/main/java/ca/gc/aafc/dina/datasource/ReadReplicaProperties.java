@@ -0,0 +1,57 @@
+package ca.gc.aafc.dina.datasource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the read replicas (e.g. Postgres streaming replicas) used by read-only transactions.
+ * Disabled by default. The primary is configured by the usual spring.datasource properties.
+ *
+ * Example:
+ * <pre>
+ * dina:
+ *   datasource:
+ *     read-replica:
+ *       enabled: true
+ *       max-lag: 10s
+ *       replicas:
+ *         - url: jdbc:postgresql://replica1:5432/collection?currentSchema=collection
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "dina.datasource.read-replica")
+@Getter
+@Setter
+public class ReadReplicaProperties {
+
+  private boolean enabled = false;
+
+  /**
+   * A replica lagging behind the primary by more than max-lag is not used until it catches up.
+   */
+  private Duration maxLag = Duration.ofSeconds(10);
+
+  private Duration lagCheckInterval = Duration.ofSeconds(5);
+
+  private List<Replica> replicas = new ArrayList<>();
+
+  @Getter
+  @Setter
+  public static class Replica {
+    private String url;
+
+    /**
+     * Defaults to spring.datasource.username
+     */
+    private String username;
+
+    /**
+     * Defaults to spring.datasource.password
+     */
+    private String password;
+  }
+}
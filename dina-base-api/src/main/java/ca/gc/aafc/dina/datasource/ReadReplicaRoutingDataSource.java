@@ -0,0 +1,171 @@
+package ca.gc.aafc.dina.datasource;
+
+import lombok.NonNull;
+import lombok.extern.log4j.Log4j2;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+
+/**
+ * DataSource sending the connections of read-only transactions ({@code @Transactional(readOnly = true)})
+ * to the replicas (round-robin) and all the other connections to the primary.
+ *
+ * Should be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} so the
+ * connection is only obtained once the read-only flag of the transaction is known.
+ *
+ * A replica is skipped when its lag is above maxLag (see {@link #checkReplicaLag()}) or when a connection
+ * can't be obtained from it. The primary is used when no replica is available.
+ */
+@Log4j2
+public class ReadReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+  // lag in seconds, 0 if everything received is replayed (or if the database is not a replica)
+  static final String REPLICA_LAG_SQL = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() " +
+    "THEN 0 ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+  private final DataSource primary;
+  private final List<ReplicaState> replicas;
+  private final Duration maxLag;
+
+  private final AtomicInteger nextReplica = new AtomicInteger();
+  private ScheduledExecutorService lagCheckExecutor;
+
+  public ReadReplicaRoutingDataSource(@NonNull DataSource primary, @NonNull List<DataSource> replicas,
+                                      @NonNull Duration maxLag) {
+    this.primary = primary;
+    this.replicas = replicas.stream().map(ReplicaState::new).toList();
+    this.maxLag = maxLag;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return route(DataSource::getConnection);
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return route(ds -> ds.getConnection(username, password));
+  }
+
+  private Connection route(ConnectionProvider provider) throws SQLException {
+    if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+      // try each replica at most once
+      for (int i = 0; i < replicas.size(); i++) {
+        ReplicaState replica = nextAvailableReplica();
+        if (replica == null) {
+          break;
+        }
+        try {
+          return provider.getConnection(replica.dataSource);
+        } catch (SQLException sqlEx) {
+          log.warn("Can't get a connection from a read replica, replica disabled until next lag check", sqlEx);
+          replica.available = false;
+        }
+      }
+    }
+    return provider.getConnection(primary);
+  }
+
+  private ReplicaState nextAvailableReplica() {
+    int start = nextReplica.getAndIncrement();
+    for (int i = 0; i < replicas.size(); i++) {
+      ReplicaState replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+      if (replica.available) {
+        return replica;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Check the lag of each replica and only keep the ones within maxLag available.
+   * Replicas that can't be reached are considered unavailable.
+   */
+  public void checkReplicaLag() {
+    for (ReplicaState replica : replicas) {
+      try (Connection connection = replica.dataSource.getConnection();
+           Statement statement = connection.createStatement();
+           ResultSet rs = statement.executeQuery(REPLICA_LAG_SQL)) {
+        rs.next();
+        double lagSeconds = rs.getDouble(1);
+        boolean available = lagSeconds * 1000 <= maxLag.toMillis();
+        if (replica.available && !available) {
+          log.warn("Read replica lag of {}s is above the maximum, using the primary", lagSeconds);
+        }
+        replica.available = available;
+      } catch (SQLException sqlEx) {
+        log.warn("Can't check the lag of a read replica", sqlEx);
+        replica.available = false;
+      }
+    }
+  }
+
+  /**
+   * Start checking the lag of the replicas at the provided interval (starting now).
+   * @param interval
+   */
+  public synchronized void startLagCheck(@NonNull Duration interval) {
+    if (lagCheckExecutor != null) {
+      return;
+    }
+    lagCheckExecutor = Executors.newSingleThreadScheduledExecutor(
+      Thread.ofVirtual().name("read-replica-lag-check").factory());
+    lagCheckExecutor.scheduleWithFixedDelay(this::checkReplicaLag, 0, interval.toMillis(),
+      TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * @return number of replicas currently available
+   */
+  public int getAvailableReplicaCount() {
+    return (int) replicas.stream().filter(r -> r.available).count();
+  }
+
+  /**
+   * Stop the lag check and close the primary and replicas DataSource (if closeable).
+   */
+  @Override
+  public synchronized void close() throws Exception {
+    if (lagCheckExecutor != null) {
+      lagCheckExecutor.shutdownNow();
+      lagCheckExecutor = null;
+    }
+    for (ReplicaState replica : replicas) {
+      closeIfPossible(replica.dataSource);
+    }
+    closeIfPossible(primary);
+  }
+
+  private static void closeIfPossible(DataSource dataSource) throws Exception {
+    if (dataSource instanceof AutoCloseable closeable) {
+      closeable.close();
+    }
+  }
+
+  @FunctionalInterface
+  private interface ConnectionProvider {
+    Connection getConnection(DataSource dataSource) throws SQLException;
+  }
+
+  private static final class ReplicaState {
+    private final DataSource dataSource;
+    // replicas are considered available until the first lag check
+    private volatile boolean available = true;
+
+    private ReplicaState(DataSource dataSource) {
+      this.dataSource = dataSource;
+    }
+  }
+}
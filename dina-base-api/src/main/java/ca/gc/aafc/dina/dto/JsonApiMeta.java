@@ -16,9 +16,11 @@ public final class JsonApiMeta {
 
   public static final String RESOURCE_COUNT = "totalResourceCount";
   public static final String MODULE_VERSION = "moduleVersion";
+  public static final String NEXT_PAGE_CURSOR = "nextPageCursor";
 
   private Integer totalResourceCount = null;
   private String moduleVersion = null;
+  private String nextPageCursor = null;
 
   private JsonApiMeta() {
   }
@@ -35,6 +37,10 @@ public final class JsonApiMeta {
     if (moduleVersion != null) {
       metaSetter.apply(MODULE_VERSION, moduleVersion);
     }
+
+    if (nextPageCursor != null) {
+      metaSetter.apply(NEXT_PAGE_CURSOR, nextPageCursor);
+    }
   }
 
 }
@@ -4,7 +4,7 @@ import java.util.UUID;
 import lombok.Getter;
 
 @Getter
-public final class ResourceGoneException extends Exception {
+public class ResourceGoneException extends Exception {
 
   private final String resourceType;
   private final String identifier;
@@ -15,11 +15,14 @@ public final class ResourceGoneException extends Exception {
   }
 
   private ResourceGoneException(String resourceType, UUID identifier, String link) {
-
-    super(resourceType + " with ID " + identifier.toString() + " Gone."
+    this(resourceType, identifier.toString(), link, resourceType + " with ID " + identifier + " Gone."
       + " The Resource has been deleted but audit records remain, see the links.about section");
+  }
+
+  protected ResourceGoneException(String resourceType, String identifier, String link, String message) {
+    super(message);
     this.resourceType = resourceType;
-    this.identifier = identifier.toString();
+    this.identifier = identifier;
     this.link = link;
   }
 }
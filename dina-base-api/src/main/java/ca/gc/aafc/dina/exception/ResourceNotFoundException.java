@@ -5,7 +5,7 @@ import java.util.UUID;
 import lombok.Getter;
 
 @Getter
-public final class ResourceNotFoundException extends Exception {
+public class ResourceNotFoundException extends Exception {
 
   private final String resourceType;
   private final String identifier;
@@ -19,7 +19,11 @@ public final class ResourceNotFoundException extends Exception {
   }
 
   private ResourceNotFoundException(String resourceType, String identifier) {
-    super(resourceType + " with ID " + identifier + " Not Found");
+    this(resourceType, identifier, resourceType + " with ID " + identifier + " Not Found");
+  }
+
+  protected ResourceNotFoundException(String resourceType, String identifier, String message) {
+    super(message);
     this.resourceType = resourceType;
     this.identifier = identifier;
   }
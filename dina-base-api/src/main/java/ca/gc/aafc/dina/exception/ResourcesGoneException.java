@@ -5,11 +5,11 @@ import lombok.Getter;
 
 /**
  * Similar to {@link ResourceGoneException} but for multiple resources.
+ * Extends {@link ResourceGoneException} so it can be thrown by methods declaring the single resource exception.
  */
 @Getter
-public final class ResourcesGoneException extends Exception {
+public final class ResourcesGoneException extends ResourceGoneException {
 
-  private final String resourceType;
   private final Map<String, String> identifierLinks;
 
   public static ResourcesGoneException create(String resourceType,
@@ -18,8 +18,7 @@ public final class ResourcesGoneException extends Exception {
   }
 
   private ResourcesGoneException(String resourceType, Map<String, String> identifierLinks) {
-    super(resourceType + " Gone");
-    this.resourceType = resourceType;
+    super(resourceType, String.join(",", identifierLinks.keySet()), null, resourceType + " Gone");
     this.identifierLinks = identifierLinks;
   }
 }
@@ -1,24 +1,28 @@
 package ca.gc.aafc.dina.exception;
 
 import java.util.List;
-import lombok.Getter;
 
 /**
  * Similar to {@link ResourceNotFoundException} but for multiple resources.
+ * Extends {@link ResourceNotFoundException} so it can be thrown by methods declaring the single resource exception.
  */
-@Getter
-public final class ResourcesNotFoundException extends Exception {
+public final class ResourcesNotFoundException extends ResourceNotFoundException {
 
-  private final String resourceType;
-  private final List<String> identifier;
+  private final List<String> identifiers;
 
   public static ResourcesNotFoundException create(String resourceType, List<String> identifier) {
     return new ResourcesNotFoundException(resourceType, identifier);
   }
 
   private ResourcesNotFoundException(String resourceType, List<String> identifiers) {
-    super(resourceType + " Not Found");
-    this.resourceType = resourceType;
-    this.identifier = identifiers;
+    super(resourceType, String.join(",", identifiers), resourceType + " Not Found");
+    this.identifiers = identifiers;
+  }
+
+  /**
+   * @return the identifiers of all the resources not found
+   */
+  public List<String> getIdentifiers() {
+    return identifiers;
   }
 }
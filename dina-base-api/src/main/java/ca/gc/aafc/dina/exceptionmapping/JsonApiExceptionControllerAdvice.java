@@ -45,7 +45,7 @@ public class JsonApiExceptionControllerAdvice {
   public ResponseEntity<JsonApiErrors> handleResourceNotFoundException(ResourcesNotFoundException ex) {
     JsonApiErrors errors = JsonApiErrors.create();
 
-    ex.getIdentifier()
+    ex.getIdentifiers()
       .stream()
       .map(docId -> JsonApiError.create()
         .withCode(Integer.toString(HttpStatus.NOT_FOUND.value()))
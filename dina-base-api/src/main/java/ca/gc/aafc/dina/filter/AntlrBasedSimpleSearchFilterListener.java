@@ -35,6 +35,9 @@ class AntlrBasedSimpleSearchFilterListener extends SimpleSearchFilterBaseListene
   @Getter
   private Integer pageLimit;
 
+  @Getter
+  private String pageAfter;
+
   @Override
   public void exitFilter(SimpleSearchFilterParser.FilterContext ctx) {
     // more than 1 value means a OR
@@ -43,13 +46,13 @@ class AntlrBasedSimpleSearchFilterListener extends SimpleSearchFilterBaseListene
         FilterGroup.builder().conjunction(FilterGroup.Conjunction.OR);
 
       for (var filterValue : ctx.attributeValue()) {
-        fgBuilder.component(new FilterExpression(ctx.propertyName().getText(),
-          translateOperator(extractComparison(ctx)), filterValue.getText()));
+        fgBuilder.component(QueryStringParser.toFilterExpression(ctx.propertyName().getText(),
+          extractComparison(ctx), filterValue.getText()));
       }
       components.add(fgBuilder.build());
     } else if (ctx.attributeValue().size() == 1) {
-      components.add(new FilterExpression(ctx.propertyName().getText(),
-        translateOperator(extractComparison(ctx)), ctx.attributeValue().getFirst().getText()));
+      components.add(QueryStringParser.toFilterExpression(ctx.propertyName().getText(),
+        extractComparison(ctx), ctx.attributeValue().getFirst().getText()));
     }
   }
 
@@ -69,6 +72,12 @@ class AntlrBasedSimpleSearchFilterListener extends SimpleSearchFilterBaseListene
 
   @Override
   public void exitPage(SimpleSearchFilterParser.PageContext ctx) {
+    // cursor can't be tested with getText() since it could include offset or limit
+    if (ctx.pageCursor() != null) {
+      pageAfter = ctx.pageCursor().getText();
+      return;
+    }
+
     try {
       if (ctx.getText().contains("offset")) {
         pageOffset = Integer.valueOf(ctx.pageValue().getText());
@@ -149,17 +158,6 @@ class AntlrBasedSimpleSearchFilterListener extends SimpleSearchFilterBaseListene
   }
 
   public Ops translateOperator(String op) {
-    return switch (op) {
-      case "EQ" -> Ops.EQ;
-      case "NEQ" -> Ops.NE;
-      case "LT" -> Ops.LT;
-      case "LOE" -> Ops.LOE;
-      case "GT" -> Ops.GT;
-      case "GOE" -> Ops.GOE;
-      case "LIKE" -> Ops.LIKE;
-      case "ILIKE" -> Ops.LIKE_IC;
-      case "IN" -> Ops.IN;
-      default -> null;
-    };
+    return QueryStringParser.translateOperator(op);
   }
 }
@@ -12,12 +12,14 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.BiFunction;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.FetchParent;
 import jakarta.persistence.criteria.JoinType;
 import jakarta.persistence.criteria.Order;
 import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import lombok.NonNull;
 import lombok.extern.log4j.Log4j2;
@@ -118,27 +120,7 @@ public final class EntityFilterHelper {
     List<Order> orderByClause = new ArrayList<>(sortAttributes.size());
 
     for (String sortAttribute : sortAttributes) {
-      Expression<?> orderByExpression;
-      Path<T> from = root;
-      try {
-        for (String path : StringUtils.split(StringUtils.removeStart(sortAttribute, REVERSE_ORDER_PREFIX), ".")) {
-          from = from.get(path);
-        }
-      } catch (IllegalArgumentException iaEx) {
-        //  if attribute of the given name does not exist
-
-        // unwrap exception if possible
-        if (iaEx.getCause() != null) {
-          throw new UnknownAttributeException(iaEx.getCause());
-        }
-        throw new UnknownAttributeException(iaEx);
-      }
-
-      if (!caseSensitive && from.getJavaType() == String.class) {
-        orderByExpression = cb.lower(from.as(String.class));
-      } else {
-        orderByExpression = from;
-      }
+      Expression<?> orderByExpression = toSortExpression(cb, resolveSortPath(root, sortAttribute), caseSensitive);
 
       if (sortAttribute.startsWith(REVERSE_ORDER_PREFIX)) {
         orderByClause.add(cb.desc(orderByExpression));
@@ -150,6 +132,137 @@ public final class EntityFilterHelper {
     return orderByClause;
   }
 
+  /**
+   * Build the seek predicate used by keyset pagination.
+   * The predicate matches the rows located after the provided values according to the sort attributes.
+   * Example: for sortAttributes "name,-id" and values "a,5" the predicate is
+   * (name > 'a' OR name IS NULL) OR (name = 'a' AND id < 5).
+   * Null values are supported and follow the Postgres default: nulls are last in ascending order and first
+   * in descending order.
+   *
+   * The sort attributes should end with a unique attribute (tie-breaker) and the query should be ordered using
+   * {@link #getOrders(CriteriaBuilder, Path, List, boolean)} with the same sortAttributes and caseSensitive.
+   *
+   * @param cb   - criteria builder to build the predicate
+   * @param root - root path of entity
+   * @param sortAttributes - the list of attribute(s) used for sorting.
+   * @param values - values of the sort attributes of the last row of the previous page (as string or null)
+   * @param caseSensitive - Should order by on text fields be case sensitive or no ?
+   * @param parser - parser used to convert the values to the type of the attributes
+   * @return the seek predicate
+   * @throws IllegalArgumentException if the number of values doesn't match the number of sort attributes
+   * @throws UnknownAttributeException if an attribute used in the sortAttributes list is unknown
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public static <T> Predicate getSeekPredicate(CriteriaBuilder cb, Path<T> root,
+                                               List<String> sortAttributes, List<String> values,
+                                               boolean caseSensitive,
+                                               BiFunction<String, Class<?>, Object> parser)
+      throws UnknownAttributeException {
+    return getSeekPredicate(cb, root, sortAttributes, values, caseSensitive, parser, null);
+  }
+
+  /**
+   * Same as {@link #getSeekPredicate(CriteriaBuilder, Path, List, List, boolean, BiFunction)} but, if a binder
+   * is provided, the values are replaced by parameters registered in the binder.
+   *
+   * @param binder optional, binder used to register the parameters
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public static <T> Predicate getSeekPredicate(CriteriaBuilder cb, Path<T> root,
+                                               List<String> sortAttributes, List<String> values,
+                                               boolean caseSensitive,
+                                               BiFunction<String, Class<?>, Object> parser,
+                                               FilterParameterBinder binder)
+      throws UnknownAttributeException {
+
+    if (CollectionUtils.isEmpty(sortAttributes) || values == null || sortAttributes.size() != values.size()) {
+      throw new IllegalArgumentException("The cursor doesn't match the sort attributes");
+    }
+
+    List<Predicate> afterPredicates = new ArrayList<>(sortAttributes.size());
+    List<Predicate> equalPredicates = new ArrayList<>(sortAttributes.size());
+
+    for (int i = 0; i < sortAttributes.size(); i++) {
+      String sortAttribute = sortAttributes.get(i);
+      Path<?> path = resolveSortPath(root, sortAttribute);
+      Expression<Comparable> sortExpression = (Expression<Comparable>) toSortExpression(cb, path, caseSensitive);
+
+      boolean reverseOrder = sortAttribute.startsWith(REVERSE_ORDER_PREFIX);
+      if (binder != null) {
+        binder.nextValue();
+      }
+
+      // nulls are sorted last in ascending order and first in descending order
+      Predicate after;
+      Predicate equal;
+      if (values.get(i) == null) {
+        after = reverseOrder ? cb.isNotNull(sortExpression) : null;
+        equal = cb.isNull(sortExpression);
+      } else {
+        Class<?> javaType = path.getJavaType();
+        Expression<?> value = binder != null ?
+          binder.bind(cb, javaType, v -> parser.apply(v, javaType)) :
+          cb.literal(parser.apply(values.get(i), javaType));
+        // apply the same function on the value
+        Expression<Comparable> valueExpression = sortExpression == path ?
+          (Expression) value : (Expression) cb.lower((Expression<String>) value);
+
+        after = reverseOrder ? cb.lessThan(sortExpression, valueExpression) :
+          cb.or(cb.greaterThan(sortExpression, valueExpression), cb.isNull(sortExpression));
+        equal = cb.equal(sortExpression, valueExpression);
+      }
+
+      // nothing is located after a null value in ascending order
+      if (after != null) {
+        List<Predicate> afterPredicate = new ArrayList<>(equalPredicates);
+        afterPredicate.add(after);
+        afterPredicates.add(cb.and(afterPredicate.toArray(Predicate[]::new)));
+      }
+      equalPredicates.add(equal);
+    }
+    return cb.or(afterPredicates.toArray(Predicate[]::new));
+  }
+
+  /**
+   * Resolve the path of a sort attribute (without the reverse order prefix).
+   * @param root
+   * @param sortAttribute
+   * @return
+   * @throws UnknownAttributeException if the attribute is unknown
+   */
+  private static <T> Path<T> resolveSortPath(Path<T> root, String sortAttribute) throws UnknownAttributeException {
+    Path<T> from = root;
+    try {
+      for (String path : StringUtils.split(StringUtils.removeStart(sortAttribute, REVERSE_ORDER_PREFIX), ".")) {
+        from = from.get(path);
+      }
+    } catch (IllegalArgumentException iaEx) {
+      //  if attribute of the given name does not exist
+
+      // unwrap exception if possible
+      if (iaEx.getCause() != null) {
+        throw new UnknownAttributeException(iaEx.getCause());
+      }
+      throw new UnknownAttributeException(iaEx);
+    }
+    return from;
+  }
+
+  /**
+   * Get the expression to use to sort on the provided path.
+   * @param cb
+   * @param path
+   * @param caseSensitive
+   * @return lower(path) for text fields when not case-sensitive, otherwise the path itself
+   */
+  private static Expression<?> toSortExpression(CriteriaBuilder cb, Path<?> path, boolean caseSensitive) {
+    if (!caseSensitive && path.getJavaType() == String.class) {
+      return cb.lower(path.as(String.class));
+    }
+    return path;
+  }
+
   /**
    * Parses an attribute path starting from the given resourceClass, searching for mappable relationships.
    *
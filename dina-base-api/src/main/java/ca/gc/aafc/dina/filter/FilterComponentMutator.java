@@ -7,7 +7,8 @@ import java.util.function.Predicate;
  * Utility class for transforming {@link FilterComponent} instances within a {@link QueryComponent}.
  *
  * <p>Recursively searches and replaces filter components based on a predicate condition,
- * maintaining immutability by creating new instances.</p>
+ * maintaining immutability by creating new instances. The provided {@link QueryComponent} is never modified
+ * so it can come from the {@link QueryComponentCache}.</p>
  *
  * <pre>{@code
  * QueryComponent result = FilterComponentMutator.mutate(
@@ -53,6 +54,7 @@ public final class FilterComponentMutator {
       .fields(queryComponent.getFields())
       .optionalFields(queryComponent.getOptionalFields())
       .pageOffset(queryComponent.getPageOffset())
+      .pageAfter(queryComponent.getPageAfter())
       .pageLimit(queryComponent.getPageLimit())
       .build();
   }
@@ -0,0 +1,148 @@
+package ca.gc.aafc.dina.filter;
+
+import com.querydsl.core.types.Ops;
+
+import org.apache.commons.lang3.ClassUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.ParameterExpression;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Used while building a {@link jakarta.persistence.criteria.CriteriaQuery} to replace the filter values by
+ * {@link ParameterExpression}s. The same criteria can then be executed again for a filter of the same shape
+ * (same attributes, operators and conjunctions) but different values.
+ *
+ * Values are identified by their position in the list returned by {@link #extractValues(FilterComponent)}
+ * (depth-first order of the {@link FilterExpression}s), followed by the page cursor values if any.
+ *
+ * Not thread-safe while the criteria is built. {@link #resolve(List)} can be called concurrently once built.
+ */
+public final class FilterParameterBinder {
+
+  private final List<Binding> bindings = new ArrayList<>();
+  private int valueIndex = -1;
+  private boolean reusable = true;
+
+  /**
+   * Move to the next value. Must be called once per value (even if no parameter is bound for it).
+   */
+  public void nextValue() {
+    valueIndex++;
+  }
+
+  /**
+   * Create a parameter bound to the current value.
+   * @param cb
+   * @param type type of the parameter
+   * @param converter function used to convert the value (as string) to the type of the parameter
+   * @return the parameter to use in place of the value
+   */
+  @SuppressWarnings("unchecked")
+  public <T> ParameterExpression<T> bind(CriteriaBuilder cb, Class<T> type, Function<String, Object> converter) {
+    ParameterExpression<T> parameter = cb.parameter((Class<T>) ClassUtils.primitiveToWrapper(type));
+    bindings.add(new Binding(parameter, valueIndex, converter));
+    return parameter;
+  }
+
+  /**
+   * Indicates that a value was used directly (not as a parameter) so the criteria can't be reused.
+   */
+  public void markNotReusable() {
+    reusable = false;
+  }
+
+  public boolean isReusable() {
+    return reusable;
+  }
+
+  /**
+   * Resolve the value of all the parameters.
+   * @param values values (as string) in the same order as they were when the criteria was built
+   * @return the value of each parameter
+   * @throws IllegalArgumentException if the number of values doesn't match or a value can't be converted
+   */
+  public Map<ParameterExpression<?>, Object> resolve(List<String> values) {
+    if (values.size() != valueIndex + 1) {
+      throw new IllegalArgumentException("The number of values doesn't match the query");
+    }
+
+    Map<ParameterExpression<?>, Object> parameters = new HashMap<>(bindings.size());
+    for (Binding binding : bindings) {
+      parameters.put(binding.parameter(), binding.converter().apply(values.get(binding.valueIndex())));
+    }
+    return parameters;
+  }
+
+  /**
+   * Extract the values of all the {@link FilterExpression} and {@link TextSearchFilterExpression} (depth-first).
+   * @param fc
+   * @return list of values (can contain null) or empty list
+   */
+  public static List<String> extractValues(FilterComponent fc) {
+    List<String> values = new ArrayList<>();
+    addValues(fc, values);
+    return values;
+  }
+
+  private static void addValues(FilterComponent fc, List<String> values) {
+    switch (fc) {
+      case null -> { }
+      case FilterGroup fg -> {
+        if (fg.hasComponents()) {
+          fg.getComponents().forEach(c -> addValues(c, values));
+        }
+      }
+      case FilterExpression fex -> values.add(fex.value());
+      case TextSearchFilterExpression tsex -> values.add(tsex.value());
+      default -> throw new IllegalStateException("Unexpected value: " + fc);
+    }
+  }
+
+  /**
+   * Returns the shape of the filter: the filter without the values.
+   * Whether a value is null, blank or present is part of the shape since it changes the predicate
+   * (e.g. a blank IN value produces an empty list).
+   * @param fc
+   * @return an object that can be used as key (implements equals/hashCode) or null if fc is null
+   */
+  public static Object toShape(FilterComponent fc) {
+    return switch (fc) {
+      case null -> null;
+      case FilterGroup fg -> new GroupShape(fg.getConjunction(),
+        fg.hasComponents() ? fg.getComponents().stream().map(FilterParameterBinder::toShape).toList() : List.of());
+      case FilterExpression fex -> new ExpressionShape(fex.attribute(), fex.operator(), ValueKind.of(fex.value()));
+      case TextSearchFilterExpression tsex ->
+        new TextSearchExpressionShape(tsex.attribute(), tsex.operator(), ValueKind.of(tsex.value()));
+      default -> throw new IllegalStateException("Unexpected value: " + fc);
+    };
+  }
+
+  private record Binding(ParameterExpression<?> parameter, int valueIndex, Function<String, Object> converter) {
+  }
+
+  private record GroupShape(FilterGroup.Conjunction conjunction, List<Object> components) {
+  }
+
+  private record ExpressionShape(String attribute, Ops operator, ValueKind valueKind) {
+  }
+
+  private record TextSearchExpressionShape(String attribute, TextSearchOps operator, ValueKind valueKind) {
+  }
+
+  private enum ValueKind {
+    NULL, BLANK, PRESENT;
+
+    static ValueKind of(String value) {
+      if (value == null) {
+        return NULL;
+      }
+      return StringUtils.isBlank(value) ? BLANK : PRESENT;
+    }
+  }
+}
@@ -0,0 +1,67 @@
+package ca.gc.aafc.dina.filter;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.List;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.commons.csv.QuoteMode;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Opaque cursor used for keyset pagination (page[after]).
+ * The cursor holds the values (as string) of the sort attributes of the last resource of a page.
+ *
+ * Values are stored as a CSV record, then hex encoded so the cursor can safely be used in a query string.
+ * Non-null values are always quoted so a null value (unquoted empty field) can be told apart from an empty string.
+ * Keyset pagination is started with {@link #FIRST_PAGE} as cursor.
+ */
+public final class PageCursor {
+
+  // not valid hex so it can't collide with an encoded cursor
+  public static final String FIRST_PAGE = "first";
+
+  private static final HexFormat HEX_FORMAT = HexFormat.of();
+  private static final CSVFormat CSV_FORMAT = CSVFormat.DEFAULT
+    .builder()
+    .setQuoteMode(QuoteMode.ALL_NON_NULL)
+    .get();
+
+  private PageCursor() {
+    // utility class
+  }
+
+  /**
+   * Encode the provided values into a cursor.
+   * @param values values of the sort attributes, can contain null values
+   * @return the cursor
+   */
+  public static String encode(List<String> values) {
+    String record = CSV_FORMAT.format(values.toArray());
+    return HEX_FORMAT.formatHex(record.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Decode the provided cursor into the values of the sort attributes.
+   * @param cursor cursor created by {@link #encode(List)}
+   * @return values of the sort attributes (as string), null values are returned as null
+   * @throws IllegalArgumentException if the cursor is invalid
+   */
+  public static List<String> decode(String cursor) {
+    if (StringUtils.isBlank(cursor)) {
+      throw new IllegalArgumentException("Invalid cursor");
+    }
+
+    try (CSVParser parser = CSV_FORMAT.parse(new StringReader(
+      new String(HEX_FORMAT.parseHex(cursor), StandardCharsets.UTF_8)))) {
+      CSVRecord record = parser.iterator().next();
+      return record.toList();
+    } catch (IOException | RuntimeException e) {
+      throw new IllegalArgumentException("Invalid cursor", e);
+    }
+  }
+}
@@ -30,6 +30,9 @@ public class QueryComponent {
   private final Integer pageOffset;
   private final Integer pageLimit;
 
+  // opaque cursor for keyset pagination, see PageCursor
+  private final String pageAfter;
+
   // Represents an empty query component
   public static final QueryComponent EMPTY = QueryComponent.builder().build();
 
@@ -0,0 +1,115 @@
+package ca.gc.aafc.dina.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded (Caffeine) cache of {@link QueryComponent} keyed by the raw query string.
+ * UI list views, polling and bulk-load requests send the same query strings constantly so they are
+ * only parsed once (per expireAfterWrite).
+ *
+ * The cached {@link QueryComponent} are shared between requests so their collections are made unmodifiable.
+ * {@link FilterComponentMutator} always returns a new instance.
+ *
+ * The cache statistics are reported to the Micrometer global registry under the cache name
+ * "dina.query.component.cache" (see {@link CaffeineCacheMetrics}).
+ */
+public class QueryComponentCache {
+
+  public static final String METRIC_NAME = "dina.query.component.cache";
+
+  private final Cache<String, QueryComponent> queryComponents;
+  private final int maxQueryStringLength;
+
+  /**
+   * @param maximumSize maximum number of query strings to keep
+   * @param expireAfterWrite time after which a query string is parsed again
+   * @param maxQueryStringLength longer query strings are not cached
+   */
+  public QueryComponentCache(int maximumSize, Duration expireAfterWrite, int maxQueryStringLength) {
+    this(maximumSize, expireAfterWrite, maxQueryStringLength, Ticker.systemTicker());
+  }
+
+  QueryComponentCache(int maximumSize, Duration expireAfterWrite, int maxQueryStringLength,
+                      Ticker ticker) {
+    this.queryComponents = Caffeine.newBuilder()
+      .maximumSize(maximumSize)
+      .expireAfterWrite(expireAfterWrite)
+      .ticker(ticker)
+      .recordStats()
+      .build();
+    this.maxQueryStringLength = maxQueryStringLength;
+    CaffeineCacheMetrics.monitor(Metrics.globalRegistry, queryComponents, METRIC_NAME);
+  }
+
+  /**
+   * Get the {@link QueryComponent} of the query string or parse it.
+   * Exceptions thrown by the parser are not cached.
+   *
+   * @param queryString raw query string
+   * @param parser called on a miss
+   * @return the {@link QueryComponent}, with unmodifiable collections
+   */
+  public QueryComponent get(String queryString, Function<String, QueryComponent> parser) {
+    if (queryString.length() > maxQueryStringLength) {
+      return parser.apply(queryString);
+    }
+    return queryComponents.get(queryString, qs -> toUnmodifiable(parser.apply(qs)));
+  }
+
+  public long getHitCount() {
+    return queryComponents.stats().hitCount();
+  }
+
+  public long getMissCount() {
+    return queryComponents.stats().missCount();
+  }
+
+  /**
+   * @return the number of query strings in the cache once pending evictions are done
+   */
+  public long size() {
+    queryComponents.cleanUp();
+    return queryComponents.estimatedSize();
+  }
+
+  public void clear() {
+    queryComponents.invalidateAll();
+  }
+
+  /**
+   * Copy the {@link QueryComponent} using unmodifiable collections.
+   * Filter groups are already unmodifiable.
+   */
+  private static QueryComponent toUnmodifiable(QueryComponent queryComponent) {
+    return QueryComponent.builder()
+      .filters(queryComponent.getFilters())
+      .fiql(queryComponent.getFiql())
+      .includes(queryComponent.getIncludes() != null ? Set.copyOf(queryComponent.getIncludes()) : null)
+      .sorts(queryComponent.getSorts() != null ? List.copyOf(queryComponent.getSorts()) : null)
+      .fields(copyOf(queryComponent.getFields()))
+      .optionalFields(copyOf(queryComponent.getOptionalFields()))
+      .pageOffset(queryComponent.getPageOffset())
+      .pageLimit(queryComponent.getPageLimit())
+      .pageAfter(queryComponent.getPageAfter())
+      .build();
+  }
+
+  private static Map<String, List<String>> copyOf(Map<String, List<String>> fields) {
+    if (fields == null) {
+      return null;
+    }
+    return fields.entrySet().stream()
+      .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, e -> List.copyOf(e.getValue())));
+  }
+}
@@ -0,0 +1,37 @@
+package ca.gc.aafc.dina.filter;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the {@link QueryComponentCache} used by {@link QueryStringParser}.
+ * Disabled by default.
+ *
+ * Example:
+ * <pre>
+ * dina:
+ *   query-component-cache:
+ *     enabled: true
+ *     maximum-size: 1000
+ *     expire-after-write: 10m
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "dina.query-component-cache")
+@Getter
+@Setter
+public class QueryComponentCacheProperties {
+
+  private boolean enabled = false;
+
+  private int maximumSize = 1000;
+
+  private Duration expireAfterWrite = Duration.ofMinutes(10);
+
+  /**
+   * Query strings longer than that (e.g. large IN filters) are parsed but not cached.
+   */
+  private int maxQueryStringLength = 2048;
+}
@@ -15,6 +15,8 @@ import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 import org.apache.commons.lang3.StringUtils;
 
+import com.querydsl.core.types.Ops;
+
 import ca.gc.aafc.dina.filter.simple.SimpleSearchFilterLexer;
 import ca.gc.aafc.dina.filter.simple.SimpleSearchFilterParser;
 
@@ -29,16 +31,47 @@ public final class QueryStringParser {
 
   /**
    * Parse the given query string in {@link QueryComponent}.
+   * Query strings matching the grammar are parsed by {@link SinglePassQueryStringParser}, the ANTLR
+   * parser is only used for the others (e.g. syntax errors).
    *
    * @param queryString the query string or blank/null
    * @return the {@link QueryComponent} or {@link QueryComponent#EMPTY} is the query string is blank
    */
   public static QueryComponent parse(String queryString) {
+    return parse(queryString, null);
+  }
+
+  /**
+   * Same as {@link #parse(String)} but using the provided {@link QueryComponentCache}.
+   * When a cache is used, the returned {@link QueryComponent} can be shared and its collections are unmodifiable.
+   *
+   * @param queryString the query string or blank/null
+   * @param queryComponentCache the cache or null to parse without caching
+   * @return the {@link QueryComponent} or {@link QueryComponent#EMPTY} is the query string is blank
+   */
+  public static QueryComponent parse(String queryString, QueryComponentCache queryComponentCache) {
 
     if (StringUtils.isBlank(queryString)) {
       return QueryComponent.EMPTY;
     }
 
+    return queryComponentCache != null ?
+      queryComponentCache.get(queryString, QueryStringParser::parseNonBlank) : parseNonBlank(queryString);
+  }
+
+  private static QueryComponent parseNonBlank(String queryString) {
+    QueryComponent queryComponent = SinglePassQueryStringParser.parse(queryString);
+    return queryComponent != null ? queryComponent : parseWithAntlr(queryString);
+  }
+
+  /**
+   * Parse the given query string using the ANTLR generated parser.
+   * Reference implementation of the grammar.
+   *
+   * @param queryString non-blank query string
+   * @return the {@link QueryComponent}
+   */
+  static QueryComponent parseWithAntlr(String queryString) {
     SimpleSearchFilterLexer lexer = new SimpleSearchFilterLexer(
       CharStreams.fromString(queryString));
     CommonTokenStream tokens = new CommonTokenStream(lexer);
@@ -60,9 +93,46 @@ public final class QueryStringParser {
       .sorts(listener.getSort())
       .pageLimit(listener.getPageLimit())
       .pageOffset(listener.getPageOffset())
+      .pageAfter(listener.getPageAfter())
       .build();
   }
 
+  /**
+   * Create the {@link FilterComponent} of a single filter value.
+   * Text search comparisons (e.g. SIMILAR) are returned as {@link TextSearchFilterExpression}, the others as
+   * {@link FilterExpression}.
+   * @param attribute attribute of the filter
+   * @param comparison comparison of the grammar
+   * @param value filter value
+   * @return the {@link FilterComponent}
+   */
+  static FilterComponent toFilterExpression(String attribute, String comparison, String value) {
+    if ("SIMILAR".equals(comparison)) {
+      return new TextSearchFilterExpression(attribute, TextSearchOps.SIMILAR, value);
+    }
+    return new FilterExpression(attribute, translateOperator(comparison), value);
+  }
+
+  /**
+   * Translate the comparison of the grammar into the matching {@link Ops}.
+   * @param op comparison
+   * @return the {@link Ops} or null if unknown
+   */
+  static Ops translateOperator(String op) {
+    return switch (op) {
+      case "EQ" -> Ops.EQ;
+      case "NEQ" -> Ops.NE;
+      case "LT" -> Ops.LT;
+      case "LOE" -> Ops.LOE;
+      case "GT" -> Ops.GT;
+      case "GOE" -> Ops.GOE;
+      case "LIKE" -> Ops.LIKE;
+      case "ILIKE" -> Ops.LIKE_IC;
+      case "IN" -> Ops.IN;
+      default -> null;
+    };
+  }
+
   /**
    * Parses a comma-separated string of values, handling quoted strings with embedded commas.
    *
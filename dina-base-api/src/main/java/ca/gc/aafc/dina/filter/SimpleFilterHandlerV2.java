@@ -1,22 +1,28 @@
 package ca.gc.aafc.dina.filter;
 
 import ca.gc.aafc.dina.exception.UnknownAttributeException;
+import ca.gc.aafc.dina.jpa.ArrayFunctionContributor;
 import ca.gc.aafc.dina.jpa.JsonbKeyValuePredicate;
+import ca.gc.aafc.dina.jpa.TextSearchFunctionContributor;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.querydsl.core.types.Ops;
 
 import io.hypersistence.utils.hibernate.type.json.JsonType;
 import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Array;
 import java.util.Set;
+import java.util.UUID;
 import lombok.NonNull;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.Type;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
 import org.hibernate.type.SqlTypes;
 
 import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
@@ -28,9 +34,12 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 import lombok.extern.log4j.Log4j2;
 
 /**
@@ -44,6 +53,18 @@ import lombok.extern.log4j.Log4j2;
 @Log4j2
 public final class SimpleFilterHandlerV2 {
 
+  /**
+   * Above that number of values, IN lists (of uuid or text) are rendered as = any(array) with a single array
+   * parameter instead of one parameter per value. Smaller lists are padded by Hibernate
+   * (hibernate.query.in_clause_parameter_padding).
+   */
+  static final int IN_LIST_ARRAY_THRESHOLD = 128;
+
+  private static final int MAX_RESOLVED_PATHS = 10_000;
+
+  // the resolution of an attribute path only depends on the root class, see resolvePath
+  private static final Map<ResolvedPathKey, ResolvedPath> RESOLVED_PATHS = new ConcurrentHashMap<>();
+
   private SimpleFilterHandlerV2() {
   }
 
@@ -66,6 +87,23 @@ public final class SimpleFilterHandlerV2 {
     return createPredicate(new PredicateContext(cb, parser, metamodel), root, fc);
   }
 
+  /**
+   * Same as {@link #createPredicate(Root, CriteriaBuilder, BiFunction, Metamodel, FilterComponent)} but the
+   * filter values are replaced by parameters registered in the provided {@link FilterParameterBinder}.
+   *
+   * @param binder binder used to register the parameters
+   * @return Generates a predicate for a given filter component.
+   */
+  public static Predicate createPredicate(
+    @NonNull Root<?> root,
+    @NonNull CriteriaBuilder cb,
+    @NonNull BiFunction<String, Class<?>, Object> parser,
+    @NonNull Metamodel metamodel,
+    FilterComponent fc,
+    @NonNull FilterParameterBinder binder) {
+    return createPredicate(new PredicateContext(cb, parser, metamodel, binder), root, fc);
+  }
+
   /**
    * Main function to create {@link Predicate} from {@link FilterComponent}.
    * @param fc
@@ -85,6 +123,7 @@ public final class SimpleFilterHandlerV2 {
       case FilterGroup fgrp ->
         predicate = handleConjunction(ctx, root, fgrp.getConjunction(), fgrp.getComponents());
       case FilterExpression fEx -> predicate = buildPredicate(ctx, root, fEx);
+      case TextSearchFilterExpression tsEx -> predicate = buildTextSearchPredicate(ctx, root, tsEx);
       default -> throw new IllegalStateException("Unexpected value: " + fc);
     }
     return predicate;
@@ -98,39 +137,24 @@ public final class SimpleFilterHandlerV2 {
   private static Predicate buildPredicate(PredicateContext ctx, Root<?> root, FilterExpression filterExpression) {
     Object filterValue = filterExpression.value();
 
-    // Using the attribute path on the component, generate a list of all the path steps.
-    // "data.attributes.name" --> ["data", "attributes", "name"]
-    List<String> attributePath = Arrays.asList(
-      StringUtils.split(filterExpression.attribute(), '.')
-    );
-
-    Path<?> path = root;
-    boolean attributeFound = false;
-    Optional<Attribute<?, ?>> attribute = Optional.empty();
-    for (String pathElement : attributePath) {
-      attribute = findAttribute(
-        ctx.metamodel(), List.of(pathElement), path.getJavaType());
-
-      if (attribute.isPresent()) {
-        path = path.get(pathElement);
-        if (isBasicAttribute(attribute.get())) {
-          attributeFound = true;
-          break;
-        }
-      }
+    if (ctx.binder() != null) {
+      ctx.binder().nextValue();
     }
 
-    if (!attributeFound) {
-      throw new UnknownAttributeException(filterExpression.attribute());
-    }
+    ResolvedPath resolvedPath = resolvePath(ctx.metamodel(), root, filterExpression.attribute());
+    Path<?> path = resolvedPath.toPath(root);
 
     if (filterValue == null) {
       return generateNullComparisonPredicate(ctx.cb(),
         path, filterExpression.operator());
-    } else  if (isJsonb(attribute.get())) {
+    } else  if (resolvedPath.jsonb()) {
+      if (ctx.binder() != null) {
+        ctx.binder().markNotReusable();
+      }
       try {
         return generateJsonbPredicate(ctx,
-            path.getParentPath(), attributePath, attribute.get().getName(), filterValue.toString());
+            path.getParentPath(), resolvedPath.attributePath(), resolvedPath.attributeName(),
+            filterValue.toString());
       } catch (JsonProcessingException e) {
         throw new IllegalArgumentException("Invalid Json filter value", e);
       }
@@ -140,14 +164,101 @@ public final class SimpleFilterHandlerV2 {
     }
   }
 
+  /**
+   * Build a predicate from a {@link TextSearchFilterExpression}.
+   * @param textSearchExpression  The Filter Expression to generate the predicate from.
+   * @return the predicate
+   */
+  private static Predicate buildTextSearchPredicate(PredicateContext ctx, Root<?> root,
+                                                    TextSearchFilterExpression textSearchExpression) {
+    if (ctx.binder() != null) {
+      ctx.binder().nextValue();
+    }
+
+    ResolvedPath resolvedPath = resolvePath(ctx.metamodel(), root, textSearchExpression.attribute());
+    if (resolvedPath.jsonb()) {
+      throw new IllegalArgumentException(
+        textSearchExpression.operator() + " is not supported on " + textSearchExpression.attribute());
+    }
+
+    if (textSearchExpression.value() == null) {
+      return ctx.cb().and();
+    }
+
+    Path<String> path = (Path<String>) resolvedPath.toPath(root);
+    Expression<String> value = ctx.binder() != null ?
+      ctx.binder().bind(ctx.cb(), String.class, v -> v) : ctx.cb().literal(textSearchExpression.value());
+
+    return switch (textSearchExpression.operator()) {
+      case SIMILAR -> generateSimilarPredicate(ctx.cb(), path, value);
+    };
+  }
+
+  /**
+   * Resolve the attribute path against the metamodel or get it from the cache.
+   * Path elements that are not attributes are skipped ("data.attributes.name" is resolved as "name").
+   *
+   * @param metamodel JPA Metamodel
+   * @param root      root of the query
+   * @param attribute attribute path as received in the filter
+   * @return the resolved path
+   * @throws UnknownAttributeException if no basic attribute can be found
+   */
+  private static ResolvedPath resolvePath(Metamodel metamodel, Root<?> root, String attribute) {
+    ResolvedPathKey key = new ResolvedPathKey(root.getJavaType(), attribute);
+    ResolvedPath resolvedPath = RESOLVED_PATHS.get(key);
+    if (resolvedPath != null) {
+      return resolvedPath;
+    }
+
+    // Using the attribute path on the component, generate a list of all the path steps.
+    // "data.attributes.name" --> ["data", "attributes", "name"]
+    List<String> attributePath = Arrays.asList(StringUtils.split(attribute, '.'));
+
+    Path<?> path = root;
+    List<String> pathElements = new ArrayList<>();
+    for (String pathElement : attributePath) {
+      Optional<Attribute<?, ?>> found = findAttribute(metamodel, List.of(pathElement), path.getJavaType());
+
+      if (found.isPresent()) {
+        path = path.get(pathElement);
+        pathElements.add(pathElement);
+        if (isBasicAttribute(found.get())) {
+          resolvedPath = new ResolvedPath(List.copyOf(pathElements), List.copyOf(attributePath),
+            found.get().getName(), isJsonb(found.get()));
+          // attribute paths are received from the request, don't let the cache grow without limit
+          if (RESOLVED_PATHS.size() < MAX_RESOLVED_PATHS) {
+            RESOLVED_PATHS.put(key, resolvedPath);
+          }
+          return resolvedPath;
+        }
+      }
+    }
+    throw new UnknownAttributeException(attribute);
+  }
+
+  /**
+   * Clear the cache of resolved attribute paths.
+   * Should only be required when the metamodel changes (e.g. tests using different entities for the same class).
+   */
+  public static void clearResolvedPathCache() {
+    RESOLVED_PATHS.clear();
+  }
+
+  static int getResolvedPathCacheSize() {
+    return RESOLVED_PATHS.size();
+  }
+
   private static Predicate generatePredicate(PredicateContext ctx, Path<?> path, Ops operator, String value) {
+    if (ctx.binder() != null) {
+      return generateParameterizedPredicate(ctx, path, operator, value);
+    }
+
     return switch (operator) {
       case NE -> ctx.cb().not(ctx.cb().equal(path, ctx.parser().apply(value, path.getJavaType())));
       case EQ -> ctx.cb().equal(path, ctx.parser().apply(value, path.getJavaType()));
       case LIKE -> ctx.cb().like((Path<String>) path, value);
-      // there is no built-in support for case-insensitive like in Hibernate so, we are using
-      // lower case. Could have performance impact on very large tables
-      case LIKE_IC -> ctx.cb().like(ctx.cb().lower((Path<String>) path), value.toLowerCase());
+      case LIKE_IC -> generateCaseInsensitiveLikePredicate(ctx.cb(), (Path<String>) path, ctx.cb().literal(value));
       case IN -> generateInPredicate(ctx, path, value);
       case LT, LOE, GT, GOE -> generateComparablePredicate(ctx.cb(), path, operator, ctx.parser().apply(value, path.getJavaType()));
       default -> {
@@ -157,6 +268,67 @@ public final class SimpleFilterHandlerV2 {
     };
   }
 
+  /**
+   * Same as {@link #generatePredicate(PredicateContext, Path, Ops, String)} but using parameters registered in
+   * the binder instead of the value.
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Predicate generateParameterizedPredicate(PredicateContext ctx, Path<?> path, Ops operator,
+                                                          String value) {
+    CriteriaBuilder cb = ctx.cb();
+    FilterParameterBinder binder = ctx.binder();
+    Class<?> javaType = path.getJavaType();
+    Function<String, Object> parse = v -> ctx.parser().apply(v, javaType);
+    Function<String, Object> parseComparable = v -> toComparable(ctx.parser().apply(v, javaType));
+
+    return switch (operator) {
+      case NE -> cb.not(cb.equal(path, binder.bind(cb, javaType, parse)));
+      case EQ -> cb.equal(path, binder.bind(cb, javaType, parse));
+      case LIKE -> cb.like((Path<String>) path, binder.bind(cb, String.class, v -> v));
+      case LIKE_IC -> generateCaseInsensitiveLikePredicate(cb, (Path<String>) path, binder.bind(cb, String.class, v -> v));
+      case IN -> {
+        if (supportsArrayParameter(javaType) && StringUtils.isNotBlank(value)) {
+          // a single array parameter whatever the number of values
+          yield generateEqualAnyPredicate(cb, path, binder.bind(cb, javaType.arrayType(),
+            v -> toArray(ctx, javaType, QueryStringParser.parseQuotedValues(v))));
+        }
+        // the number of values is part of the query
+        binder.markNotReusable();
+        yield generateInPredicate(ctx, path, value);
+      }
+      case LT -> cb.lessThan((Path<Comparable>) path, (Expression<Comparable>) binder.bind(cb, javaType, parseComparable));
+      case LOE -> cb.lessThanOrEqualTo((Path<Comparable>) path, (Expression<Comparable>) binder.bind(cb, javaType, parseComparable));
+      case GT -> cb.greaterThan((Path<Comparable>) path, (Expression<Comparable>) binder.bind(cb, javaType, parseComparable));
+      case GOE -> cb.greaterThanOrEqualTo((Path<Comparable>) path, (Expression<Comparable>) binder.bind(cb, javaType, parseComparable));
+      default -> {
+        log.warn("Unhandled operator: {}", operator);
+        yield null;
+      }
+    };
+  }
+
+  /**
+   * Generates a case-insensitive like predicate.
+   * Rendered as ILIKE by Hibernate on PostgreSQL so a trigram index on the column can be used.
+   * Other CriteriaBuilder use lower() on both sides.
+   */
+  private static Predicate generateCaseInsensitiveLikePredicate(CriteriaBuilder cb, Path<String> path,
+                                                                Expression<String> value) {
+    if (cb instanceof HibernateCriteriaBuilder hcb) {
+      return hcb.ilike(path, value);
+    }
+    return cb.like(cb.lower(path), cb.lower(value));
+  }
+
+  /**
+   * Generates a pg_trgm similarity predicate (path % value).
+   * See {@link TextSearchFunctionContributor}.
+   */
+  private static Predicate generateSimilarPredicate(CriteriaBuilder cb, Path<String> path, Expression<String> value) {
+    return cb.isTrue(cb.function(TextSearchFunctionContributor.TRIGRAM_SIMILAR_FUNCTION_NAME, Boolean.class,
+      path, value));
+  }
+
   /**
    * Generates an IN predicate for the provided Path and values (comma separated, quotes to escape comma)
    * @param path
@@ -168,12 +340,42 @@ public final class SimpleFilterHandlerV2 {
       return null;
     }
     Set<String> valueSet = QueryStringParser.parseQuotedValues(values);
+    if (valueSet.size() > IN_LIST_ARRAY_THRESHOLD && supportsArrayParameter(path.getJavaType())) {
+      return generateEqualAnyPredicate(ctx.cb(), path,
+        ctx.cb().literal(toArray(ctx, path.getJavaType(), valueSet)));
+    }
+
     List<Object> parsedValues =
       valueSet.stream().map(v -> ctx.parser().apply(v, path.getJavaType())).toList();
 
     return path.in(parsedValues);
   }
 
+  /**
+   * Generates a path = any(array) predicate.
+   * See {@link ArrayFunctionContributor}.
+   */
+  private static Predicate generateEqualAnyPredicate(CriteriaBuilder cb, Path<?> path, Expression<?> array) {
+    return cb.isTrue(cb.function(ArrayFunctionContributor.EQUAL_ANY_FUNCTION_NAME, Boolean.class,
+      path, array));
+  }
+
+  /**
+   * Types that can be sent as an array parameter (uuid[] and text[]).
+   */
+  private static boolean supportsArrayParameter(Class<?> javaType) {
+    return javaType == UUID.class || javaType == String.class;
+  }
+
+  private static Object[] toArray(PredicateContext ctx, Class<?> javaType, Set<String> values) {
+    Object[] array = (Object[]) Array.newInstance(javaType, values.size());
+    int i = 0;
+    for (String v : values) {
+      array[i++] = ctx.parser().apply(v, javaType);
+    }
+    return array;
+  }
+
   /**
    * Generates a predicate for null comparison based on the provided operator.
    *
@@ -229,21 +431,11 @@ public final class SimpleFilterHandlerV2 {
   public static Predicate generateComparablePredicate(CriteriaBuilder criteriaBuilder,
                                    Path<?> path, Ops operator, Object value) {
 
-    if (value == null) {
-      throw new IllegalArgumentException("Value cannot be null");
-    }
-
-    if (!(value instanceof Comparable)) {
-      throw new IllegalArgumentException(
-        "Value must implement Comparable. Type: " + value.getClass().getName()
-      );
-    }
-
     @SuppressWarnings("unchecked")
     Path<Comparable<Object>> comparablePath = (Path<Comparable<Object>>) path;
 
     @SuppressWarnings("unchecked")
-    Comparable<Object> comparableValue = (Comparable<Object>) value;
+    Comparable<Object> comparableValue = (Comparable<Object>) toComparable(value);
 
     return switch (operator) {
       case LT -> criteriaBuilder.lessThan(comparablePath, comparableValue);
@@ -254,6 +446,25 @@ public final class SimpleFilterHandlerV2 {
     };
   }
 
+  /**
+   * Make sure the value can be used with LT, LOE, GT, GOE.
+   * @param value
+   * @return the value
+   * @throws IllegalArgumentException if the value is null or not comparable
+   */
+  private static Object toComparable(Object value) {
+    if (value == null) {
+      throw new IllegalArgumentException("Value cannot be null");
+    }
+
+    if (!(value instanceof Comparable)) {
+      throw new IllegalArgumentException(
+        "Value must implement Comparable. Type: " + value.getClass().getName()
+      );
+    }
+    return value;
+  }
+
   /**
    * Returns the attribute registered with the given meta-model found at the given
    * attribute path.
@@ -355,6 +566,7 @@ public final class SimpleFilterHandlerV2 {
       Predicate predicate = switch(fc) {
         case FilterGroup fg -> createPredicate(ctx, root, fg);
         case FilterExpression fex -> buildPredicate(ctx, root, fex);
+        case TextSearchFilterExpression tsex -> buildTextSearchPredicate(ctx, root, tsex);
         default -> throw new IllegalStateException("Unexpected value: " + fc);
       };
 
@@ -390,8 +602,37 @@ public final class SimpleFilterHandlerV2 {
     return null;
   }
 
+  private record ResolvedPathKey(Class<?> rootType, String attribute) {
+  }
+
+  /**
+   * Attribute path resolved against the metamodel.
+   * @param pathElements elements to get from the root to reach the basic attribute
+   * @param attributePath all the elements of the attribute path (including the ones in the jsonb document)
+   * @param attributeName name of the basic attribute
+   * @param jsonb is the basic attribute a jsonb column
+   */
+  private record ResolvedPath(List<String> pathElements, List<String> attributePath, String attributeName,
+                              boolean jsonb) {
+    Path<?> toPath(Root<?> root) {
+      Path<?> path = root;
+      for (String pathElement : pathElements) {
+        path = path.get(pathElement);
+      }
+      return path;
+    }
+  }
+
+  /**
+   * @param binder optional, if provided the values will be replaced by parameters
+   */
   public record PredicateContext(CriteriaBuilder cb, BiFunction<String, Class<?>, Object> parser,
-                                 Metamodel metamodel) {
+                                 Metamodel metamodel, FilterParameterBinder binder) {
+
+    public PredicateContext(CriteriaBuilder cb, BiFunction<String, Class<?>, Object> parser,
+                            Metamodel metamodel) {
+      this(cb, parser, metamodel, null);
+    }
   }
 
 }
@@ -55,6 +55,8 @@ public final class SimpleObjectFilterHandlerV2 {
       }
       case FilterExpression fEx ->
         predicate = buildPredicate(fEx);
+      // text search operators are not supported in memory
+      case TextSearchFilterExpression tsEx -> predicate = o -> false;
       default -> throw new IllegalStateException("Unexpected value: " + fc);
     }
 
@@ -357,6 +359,7 @@ public final class SimpleObjectFilterHandlerV2 {
       switch(fc) {
         case FilterGroup fg -> predicate = or(predicate, createPredicate(fg));
         case FilterExpression fex -> predicate = or(predicate, buildPredicate(fex));
+        case TextSearchFilterExpression tsex -> predicate = or(predicate, createPredicate(tsex));
         default -> throw new IllegalStateException("Unexpected value: " + fc);
       }
     }
@@ -373,6 +376,7 @@ public final class SimpleObjectFilterHandlerV2 {
       switch (fc) {
         case FilterGroup fg -> predicate = and(predicate, createPredicate(fg));
         case FilterExpression fex -> predicate = and(predicate, buildPredicate(fex));
+        case TextSearchFilterExpression tsex -> predicate = and(predicate, createPredicate(tsex));
         default -> throw new IllegalStateException("Unexpected value: " + fc);
       }
     }
@@ -0,0 +1,531 @@
+package ca.gc.aafc.dina.filter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hand-written parser for the SimpleSearchFilter grammar (see SimpleSearchFilter.g4 in dina-filter).
+ * Tokens are recognized the same way as the ANTLR lexer (including keywords) but no token list or
+ * parse tree is created: the {@link QueryComponent} is built in a single pass over the query string.
+ *
+ * Only query strings fully matching the grammar are handled. For anything else (syntax errors, unknown
+ * characters, whitespace tokens) null is returned so the caller can use the ANTLR implementation and
+ * keep its error recovery behavior.
+ *
+ * Package-protected, implementation details. {@link QueryStringParser} should be used.
+ */
+final class SinglePassQueryStringParser {
+
+  // token types
+  private static final int EOF = 0;
+  private static final int AMPERSAND = 1;
+  private static final int LEFT_BRACKET = 2;
+  private static final int RIGHT_BRACKET = 3;
+  private static final int EQUALS = 4;
+  private static final int COMMA = 5;
+  private static final int ASCII_LETTER = 6;
+  private static final int UNICODE_NON_ASCII_LETTER = 7;
+  private static final int INT = 8;
+  private static final int UNDERSCORE = 9;
+  private static final int DASH = 10;
+  private static final int DOT = 11;
+  private static final int PERCENTAGE = 12;
+  private static final int SPACE = 13;
+  private static final int FORWARD_SLASH = 14;
+  private static final int COLON = 15;
+  private static final int SEMI = 16;
+  private static final int EXCL = 17;
+  private static final int ASTERISK = 18;
+  private static final int PARENTHESIS = 19;
+  private static final int QUOTED_STRING = 20;
+  private static final int FIELDS_KW = 21;
+  private static final int OPT_FIELDS_KW = 22;
+  private static final int FILTER_KW = 23;
+  private static final int FIQL_KW = 24;
+  private static final int SORT_KW = 25;
+  private static final int PAGE_KW = 26;
+  private static final int INCLUDE_KW = 27;
+  private static final int LIMIT = 28;
+  private static final int OFFSET = 29;
+  private static final int AFTER = 30;
+  private static final int COMPARISON = 31;
+
+  private static final String DEFAULT_OP = "EQ";
+
+  private final String input;
+
+  // current token
+  private int type;
+  private int start;
+  private int end;
+
+  // created on first use so include-only query strings (getOne) don't allocate them
+  private List<FilterComponent> components;
+  private Map<String, List<String>> fields;
+  private Map<String, List<String>> optFields;
+  private List<String> sorts;
+  private List<String> includes;
+  private String fiql;
+  private Integer pageOffset;
+  private Integer pageLimit;
+  private String pageAfter;
+
+  private SinglePassQueryStringParser(String input) {
+    this.input = input;
+  }
+
+  /**
+   * Parse the query string.
+   *
+   * @param queryString non-blank query string
+   * @return the {@link QueryComponent} or null if the query string doesn't fully match the grammar
+   * @throws IllegalArgumentException if a page value is not a valid integer
+   */
+  static QueryComponent parse(String queryString) {
+    SinglePassQueryStringParser parser = new SinglePassQueryStringParser(queryString);
+    return parser.parseSimpleFilter() ? parser.build() : null;
+  }
+
+  private boolean parseSimpleFilter() {
+    if (!nextToken() || !parseExpression()) {
+      return false;
+    }
+    while (type == AMPERSAND) {
+      if (!nextToken() || !parseExpression()) {
+        return false;
+      }
+    }
+    return type == EOF;
+  }
+
+  private boolean parseExpression() {
+    return switch (type) {
+      case FILTER_KW -> parseFilter();
+      case FIQL_KW -> parseFiql();
+      case FIELDS_KW -> parseFields(fields());
+      case OPT_FIELDS_KW -> parseFields(optFields());
+      case SORT_KW -> parseSort();
+      case PAGE_KW -> parsePage();
+      case INCLUDE_KW -> parseInclude();
+      default -> false;
+    };
+  }
+
+  private boolean parseFilter() {
+    if (!expect(LEFT_BRACKET) || !nextToken()) {
+      return false;
+    }
+    String propertyName = readNamePart();
+    if (propertyName == null || type != RIGHT_BRACKET || !nextToken()) {
+      return false;
+    }
+
+    String comparison = DEFAULT_OP;
+    if (type == LEFT_BRACKET) {
+      if (!nextToken() || type != COMPARISON) {
+        return false;
+      }
+      comparison = tokenText();
+      if (!expect(RIGHT_BRACKET) || !nextToken()) {
+        return false;
+      }
+    }
+    if (type != EQUALS || !nextToken()) {
+      return false;
+    }
+
+    List<String> values = readList(this::readAttributeValue);
+    if (values == null) {
+      return false;
+    }
+
+    if (components == null) {
+      components = new ArrayList<>();
+    }
+    // more than 1 value means a OR
+    if (values.size() > 1) {
+      FilterGroup.FilterGroupBuilder fgBuilder =
+        FilterGroup.builder().conjunction(FilterGroup.Conjunction.OR);
+      for (String value : values) {
+        fgBuilder.component(QueryStringParser.toFilterExpression(propertyName, comparison, value));
+      }
+      components.add(fgBuilder.build());
+    } else {
+      components.add(QueryStringParser.toFilterExpression(propertyName, comparison, values.getFirst()));
+    }
+    return true;
+  }
+
+  private boolean parseFiql() {
+    if (!expect(EQUALS) || !nextToken()) {
+      return false;
+    }
+    int fiqlStart = start;
+    int fiqlEnd = -1;
+    while (isFiqlToken(type)) {
+      fiqlEnd = end;
+      if (!nextToken()) {
+        return false;
+      }
+    }
+    if (fiqlEnd == -1) {
+      return false;
+    }
+    fiql = input.substring(fiqlStart, fiqlEnd);
+    return true;
+  }
+
+  private boolean parseFields(Map<String, List<String>> fieldsPerType) {
+    if (!expect(LEFT_BRACKET) || !nextToken()) {
+      return false;
+    }
+    String fieldsType = readType();
+    if (fieldsType == null || type != RIGHT_BRACKET || !expect(EQUALS) || !nextToken()) {
+      return false;
+    }
+    List<String> propertyNames = readList(this::readNamePart);
+    if (propertyNames == null) {
+      return false;
+    }
+    fieldsPerType.computeIfAbsent(fieldsType, k -> new ArrayList<>()).addAll(propertyNames);
+    return true;
+  }
+
+  private boolean parseSort() {
+    if (!expect(EQUALS) || !nextToken()) {
+      return false;
+    }
+    List<String> sortPropertyNames = readList(this::readSortPropertyName);
+    if (sortPropertyNames == null) {
+      return false;
+    }
+    if (sorts == null) {
+      sorts = new ArrayList<>();
+    }
+    sorts.addAll(sortPropertyNames);
+    return true;
+  }
+
+  private boolean parsePage() {
+    if (!expect(LEFT_BRACKET) || !nextToken()) {
+      return false;
+    }
+    int pageType = type;
+    if (pageType != LIMIT && pageType != OFFSET && pageType != AFTER) {
+      return false;
+    }
+    if (!expect(RIGHT_BRACKET) || !expect(EQUALS) || !nextToken()) {
+      return false;
+    }
+
+    if (pageType == AFTER) {
+      int cursorStart = start;
+      int cursorEnd = -1;
+      while (type == ASCII_LETTER || type == INT) {
+        cursorEnd = end;
+        if (!nextToken()) {
+          return false;
+        }
+      }
+      if (cursorEnd == -1) {
+        return false;
+      }
+      pageAfter = input.substring(cursorStart, cursorEnd);
+      return true;
+    }
+
+    if (type != INT) {
+      return false;
+    }
+    Integer pageValue;
+    try {
+      pageValue = Integer.valueOf(tokenText());
+    } catch (NumberFormatException ex) {
+      throw new IllegalArgumentException(ex);
+    }
+    if (pageType == OFFSET) {
+      pageOffset = pageValue;
+    } else {
+      pageLimit = pageValue;
+    }
+    return nextToken();
+  }
+
+  private boolean parseInclude() {
+    if (!expect(EQUALS) || !nextToken()) {
+      return false;
+    }
+    List<String> propertyNames = readList(this::readNamePart);
+    if (propertyNames == null) {
+      return false;
+    }
+    if (includes == null) {
+      includes = propertyNames;
+    } else {
+      includes.addAll(propertyNames);
+    }
+    return true;
+  }
+
+  /**
+   * Read a comma separated list of elements starting at the current token.
+   * @return the elements or null if one of them can't be read
+   */
+  private List<String> readList(ElementReader reader) {
+    List<String> elements = new ArrayList<>();
+    String element = reader.read();
+    if (element == null) {
+      return null;
+    }
+    elements.add(element);
+    while (type == COMMA) {
+      if (!nextToken()) {
+        return null;
+      }
+      element = reader.read();
+      if (element == null) {
+        return null;
+      }
+      elements.add(element);
+    }
+    return elements;
+  }
+
+  /**
+   * namePart: (ASCII_LETTER|UNDERSCORE)+ (ASCII_LETTER | INT | UNDERSCORE | DOT | FIELDS_KW | FILTER_KW
+   * | SORT_KW | PAGE_KW | INCLUDE_KW)*
+   */
+  private String readNamePart() {
+    if (type != ASCII_LETTER && type != UNDERSCORE) {
+      return null;
+    }
+    int nameStart = start;
+    int nameEnd;
+    do {
+      nameEnd = end;
+      if (!nextToken()) {
+        return null;
+      }
+    } while (isNamePartToken(type));
+    return input.substring(nameStart, nameEnd);
+  }
+
+  /**
+   * sortPropertyName: (DASH)? namePart
+   */
+  private String readSortPropertyName() {
+    if (type != DASH) {
+      return readNamePart();
+    }
+    if (!nextToken()) {
+      return null;
+    }
+    String name = readNamePart();
+    return name == null ? null : "-" + name;
+  }
+
+  /**
+   * type: (ASCII_LETTER|UNDERSCORE)+ (ASCII_LETTER | INT | UNDERSCORE | DASH)*
+   */
+  private String readType() {
+    if (type != ASCII_LETTER && type != UNDERSCORE) {
+      return null;
+    }
+    int typeStart = start;
+    int typeEnd;
+    do {
+      typeEnd = end;
+      if (!nextToken()) {
+        return null;
+      }
+    } while (type == ASCII_LETTER || type == INT || type == UNDERSCORE || type == DASH);
+    return input.substring(typeStart, typeEnd);
+  }
+
+  /**
+   * attributeValue: QUOTED_STRING | attributeAcceptedValue
+   */
+  private String readAttributeValue() {
+    if (type == QUOTED_STRING) {
+      String value = tokenText();
+      return nextToken() ? value : null;
+    }
+    if (!isAttributeAcceptedValueToken(type)) {
+      return null;
+    }
+    int valueStart = start;
+    int valueEnd;
+    do {
+      valueEnd = end;
+      if (!nextToken()) {
+        return null;
+      }
+    } while (isAttributeAcceptedValueToken(type));
+    return input.substring(valueStart, valueEnd);
+  }
+
+  private boolean expect(int expectedType) {
+    return nextToken() && type == expectedType;
+  }
+
+  private String tokenText() {
+    return input.substring(start, end);
+  }
+
+  /**
+   * Move to the next token using the same rules as the ANTLR lexer (longest match, first rule wins on ties).
+   * @return false if the next character can't be matched by the lexer or is skipped by it (whitespace)
+   */
+  private boolean nextToken() {
+    start = end;
+    if (start >= input.length()) {
+      type = EOF;
+      return true;
+    }
+
+    char c = input.charAt(start);
+    end = start + 1;
+    type = switch (c) {
+      case '&' -> AMPERSAND;
+      case '[' -> LEFT_BRACKET;
+      case ']' -> RIGHT_BRACKET;
+      case '=' -> EQUALS;
+      case ',' -> COMMA;
+      case '_' -> UNDERSCORE;
+      case '-' -> DASH;
+      case '.' -> DOT;
+      case '%' -> PERCENTAGE;
+      case ' ' -> SPACE;
+      case '/' -> FORWARD_SLASH;
+      case ':' -> COLON;
+      case ';' -> SEMI;
+      case '!' -> EXCL;
+      case '*' -> ASTERISK;
+      case '(', ')' -> PARENTHESIS;
+      case '"' -> readQuotedString();
+      default -> readOtherToken(c);
+    };
+    return type != -1;
+  }
+
+  private int readQuotedString() {
+    int closingQuote = input.indexOf('"', start + 1);
+    if (closingQuote == -1) {
+      return -1;
+    }
+    end = closingQuote + 1;
+    return QUOTED_STRING;
+  }
+
+  private int readOtherToken(char c) {
+    if (isAsciiLetter(c)) {
+      while (end < input.length() && isAsciiLetter(input.charAt(end))) {
+        end++;
+      }
+      return letterTokenType();
+    }
+    if (c >= '0' && c <= '9') {
+      while (end < input.length() && input.charAt(end) >= '0' && input.charAt(end) <= '9') {
+        end++;
+      }
+      return INT;
+    }
+    int codePoint = input.codePointAt(start);
+    if (Character.isLetter(codePoint)) {
+      end = start + Character.charCount(codePoint);
+      return UNICODE_NON_ASCII_LETTER;
+    }
+    return -1;
+  }
+
+  /**
+   * Keywords and literals of the grammar are only recognized when they match the entire run of ASCII letters.
+   */
+  private int letterTokenType() {
+    return switch (tokenText()) {
+      case "fields" -> FIELDS_KW;
+      case "optfields" -> OPT_FIELDS_KW;
+      case "filter" -> FILTER_KW;
+      case "fiql" -> FIQL_KW;
+      case "sort" -> SORT_KW;
+      case "page" -> PAGE_KW;
+      case "include" -> INCLUDE_KW;
+      case "limit" -> LIMIT;
+      case "offset" -> OFFSET;
+      case "after" -> AFTER;
+      case "EQ", "NEQ", "GT", "GOE", "LT", "LOE", "LIKE", "ILIKE", "IN", "SIMILAR" -> COMPARISON;
+      default -> ASCII_LETTER;
+    };
+  }
+
+  private static boolean isAsciiLetter(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+  }
+
+  private static boolean isNamePartToken(int tokenType) {
+    return switch (tokenType) {
+      case ASCII_LETTER, INT, UNDERSCORE, DOT, FIELDS_KW, FILTER_KW, SORT_KW, PAGE_KW, INCLUDE_KW -> true;
+      default -> false;
+    };
+  }
+
+  private static boolean isAttributeAcceptedValueToken(int tokenType) {
+    return switch (tokenType) {
+      case ASCII_LETTER, UNICODE_NON_ASCII_LETTER, INT, UNDERSCORE, DASH, DOT, PERCENTAGE, SPACE,
+           FORWARD_SLASH, COLON, FILTER_KW, FIELDS_KW, SORT_KW, PAGE_KW, INCLUDE_KW,
+           LIMIT, OFFSET, AFTER, COMPARISON -> true;
+      default -> false;
+    };
+  }
+
+  private static boolean isFiqlToken(int tokenType) {
+    return switch (tokenType) {
+      case COMMA, SEMI, PARENTHESIS, EXCL, EQUALS, ASTERISK -> true;
+      default -> isAttributeAcceptedValueToken(tokenType);
+    };
+  }
+
+  private Map<String, List<String>> fields() {
+    if (fields == null) {
+      fields = new HashMap<>();
+    }
+    return fields;
+  }
+
+  private Map<String, List<String>> optFields() {
+    if (optFields == null) {
+      optFields = new HashMap<>();
+    }
+    return optFields;
+  }
+
+  private QueryComponent build() {
+    FilterComponent filters = null;
+    if (components != null && components.size() == 1) {
+      filters = components.getFirst();
+    } else if (components != null) {
+      filters = FilterGroup.builder().conjunction(FilterGroup.Conjunction.AND)
+        .components(components).build();
+    }
+
+    return QueryComponent.builder()
+      .filters(filters)
+      .fiql(fiql)
+      .fields(fields != null ? fields : new HashMap<>())
+      .optionalFields(optFields != null ? optFields : new HashMap<>())
+      .includes(includes != null ? Set.copyOf(includes) : Set.of())
+      .sorts(sorts != null ? sorts : new ArrayList<>())
+      .pageLimit(pageLimit)
+      .pageOffset(pageOffset)
+      .pageAfter(pageAfter)
+      .build();
+  }
+
+  @FunctionalInterface
+  private interface ElementReader {
+    String read();
+  }
+}
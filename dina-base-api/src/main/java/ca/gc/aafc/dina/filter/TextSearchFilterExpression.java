@@ -0,0 +1,10 @@
+package ca.gc.aafc.dina.filter;
+
+/**
+ * Filter expression using a text search operator (e.g. filter[name][SIMILAR]=value).
+ *
+ * Kept separate from {@link FilterExpression} since those operators have no equivalent in
+ * {@link com.querydsl.core.types.Ops}.
+ */
+public record TextSearchFilterExpression(String attribute, TextSearchOps operator, String value)
+        implements FilterComponent { }
@@ -0,0 +1,15 @@
+package ca.gc.aafc.dina.filter;
+
+import ca.gc.aafc.dina.jpa.TextSearchFunctionContributor;
+
+/**
+ * Text search operators that have no equivalent in {@link com.querydsl.core.types.Ops}.
+ * Used by {@link TextSearchFilterExpression}.
+ */
+public enum TextSearchOps {
+
+  /**
+   * Operator of filter[x][SIMILAR] (pg_trgm similarity, see {@link TextSearchFunctionContributor}).
+   */
+  SIMILAR
+}
@@ -0,0 +1,31 @@
+package ca.gc.aafc.dina.jpa;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers the PostgreSQL array functions that can't be expressed with the CriteriaBuilder.
+ * Loaded by Hibernate using the ServiceLoader (META-INF/services/org.hibernate.boot.model.FunctionContributor).
+ *
+ * {@value #EQUAL_ANY_FUNCTION_NAME}(a, b) is rendered as (a = any(b)) where b is an array. Used to replace
+ * large IN lists by a single array parameter.
+ */
+public class ArrayFunctionContributor implements FunctionContributor {
+
+  public static final String EQUAL_ANY_FUNCTION_NAME = "eq_any";
+
+  @Override
+  public void contributeFunctions(FunctionContributions functionContributions) {
+    if (!(functionContributions.getDialect() instanceof PostgreSQLDialect)) {
+      return;
+    }
+
+    BasicType<Boolean> booleanType = functionContributions.getTypeConfiguration().getBasicTypeRegistry()
+      .resolve(StandardBasicTypes.BOOLEAN);
+    functionContributions.getFunctionRegistry()
+      .registerPattern(EQUAL_ANY_FUNCTION_NAME, "(?1 = any(?2))", booleanType);
+  }
+}
@@ -4,7 +4,10 @@ import java.beans.PropertyDescriptor;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 import java.util.stream.Stream;
 import lombok.NonNull;
 
@@ -13,30 +16,58 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.reflect.FieldUtils;
 import org.apache.commons.lang3.reflect.MethodUtils;
 import org.apache.commons.lang3.tuple.Pair;
+import org.hibernate.Hibernate;
 import org.hibernate.Session;
 import org.hibernate.SimpleNaturalIdLoadAccess;
+import org.hibernate.StatelessSession;
 import org.hibernate.annotations.NaturalId;
+import org.hibernate.engine.spi.CascadeStyle;
+import org.hibernate.engine.spi.CascadingActions;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
 import org.hibernate.jpa.QueryHints;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.CollectionType;
+import org.hibernate.type.Type;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import jakarta.inject.Inject;
 import jakarta.persistence.EntityGraph;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Id;
 import jakarta.persistence.NoResultException;
+import jakarta.persistence.Parameter;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.PersistenceUnitUtil;
+import jakarta.persistence.Subgraph;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.ParameterExpression;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.SingularAttribute;
 import java.io.Serializable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Base Data Access Object layer. This class should be the only one holding a
@@ -50,12 +81,19 @@ public class BaseDAO {
   public static final int DEFAULT_STREAM_FETCH_SIZE = 100;
 
   public static final int DEFAULT_LIMIT = 100;
+  public static final int DEFAULT_NATURAL_ID_BATCH_SIZE = 500;
 
   private static final Map<Class<?>, String> NATURAL_ID_CACHE = new ConcurrentHashMap<>();
   
+  // used to run read-only work in a separate transaction (see supplyAsyncReadOnly)
+  private static final Executor ASYNC_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
   @PersistenceContext
   private EntityManager entityManager;
 
+  @Inject
+  private PlatformTransactionManager transactionManager;
+
   /**
    * This method can be used to inject the EntityManager into an external object.
    *
@@ -66,6 +104,23 @@ public class BaseDAO {
     return creator.apply(entityManager);
   }
 
+  /**
+   * Run the provided supplier on a virtual thread within a new read-only transaction (so a different connection).
+   * Since it runs outside the current transaction, uncommitted changes are not visible to the supplier.
+   *
+   * @param supplier work to run
+   * @param timeout  timeout of the transaction, applied to the queries (rounded up to the second)
+   * @return CompletableFuture of the supplier result
+   */
+  public <T> CompletableFuture<T> supplyAsyncReadOnly(@NonNull Supplier<T> supplier, @NonNull Duration timeout) {
+    TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+    transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    transactionTemplate.setReadOnly(true);
+    transactionTemplate.setTimeout((int) Math.max(1, timeout.plusMillis(999).toSeconds()));
+    return CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> supplier.get()),
+      ASYNC_EXECUTOR);
+  }
+
   /**
    * Used to call the provided PredicateSupplier with the EntityManager.
    * @param where
@@ -100,26 +155,39 @@ public class BaseDAO {
    * This method constructs an EntityGraph for the provided entity class and populates it
    * with the specified attribute nodes. The attribute nodes can represent either single-level 
    * attributes or nested attributes in a dot-separated format. If an attribute node contains a dot, 
-   * it will be treated as a nested attribute, and a subgraph will be created.
+   * it will be treated as a nested attribute, and a subgraph will be created for each level.
+   * Attribute nodes sharing a path (e.g. "a.b" and "a.c") use the same subgraph.
    *
    * @param entityClass     The class of the entity for which the EntityGraph is constructed.
    * @param attributeNodes  The attribute nodes to be included in the EntityGraph.
    *                        The attribute nodes can be either single-level attributes or nested attributes
-   *                        represented in a dot-separated format (e.g., "attributeName" or "nestedEntity.attributeName").
+   *                        represented in a dot-separated format (e.g., "attributeName" or
+   *                        "nestedEntity.otherNestedEntity.attributeName").
    * @return An EntityGraph for the specified entity class with the given attribute nodes.
    */
   public <T> EntityGraph<T> createEntityGraph(Class<T> entityClass, String... attributeNodes) {
     EntityGraph<T> graph = entityManager.createEntityGraph(entityClass);
+    // subgraphs by path
+    Map<String, Subgraph<?>> subgraphs = new HashMap<>();
     for (String attribute : attributeNodes) {
-      if (attribute.contains(".")) {
-        String[] parts = StringUtils.split(attribute, ".", 2);
+      String[] parts = StringUtils.split(attribute, ".");
+      if (parts.length == 0) {
+        continue;
+      }
+      if (parts.length == 1) {
+        graph.addAttributeNodes(parts[0]);
+        continue;
+      }
 
-        if (parts.length == 2) {
-          graph.addSubgraph(parts[0]).addAttributeNodes(parts[1]);
-        }
-      } else {
-        graph.addAttributeNodes(attribute);
+      String path = parts[0];
+      Subgraph<?> subgraph = subgraphs.computeIfAbsent(path, graph::addSubgraph);
+      for (int i = 1; i < parts.length - 1; i++) {
+        Subgraph<?> parent = subgraph;
+        path = path + "." + parts[i];
+        String attributeName = parts[i];
+        subgraph = subgraphs.computeIfAbsent(path, p -> parent.addSubgraph(attributeName));
       }
+      subgraph.addAttributeNodes(parts[parts.length - 1]);
     }
     return graph;
   }
@@ -243,6 +311,8 @@ public class BaseDAO {
   /**
    * Find an entity by its {@link NaturalId}. The method assumes that the
    * naturalId is unique.
+   * Without hints, the natural id load access is used so the natural id resolution and second-level caches
+   * can be used.
    *
    * @param id
    * @param entityClass
@@ -251,7 +321,11 @@ public class BaseDAO {
    */
   public <T> T findOneByNaturalId(Object id, Class<T> entityClass, Map<String, Object> hints) {
 
-    // Hibernate 5 doesn't support hint on natural id, so we are creating a real query
+    if (hints == null || hints.isEmpty()) {
+      return findOneByNaturalId(id, entityClass);
+    }
+
+    // hints (e.g. load graph) are not supported on natural id, so we are creating a real query
     CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
     CriteriaQuery<T> criteria = criteriaBuilder.createQuery(entityClass);
     Root<T> root = criteria.from(entityClass);
@@ -270,6 +344,111 @@ public class BaseDAO {
     }
   }
 
+  /**
+   * Find all the entities matching the provided {@link NaturalId} values using a single query.
+   * The order of the returned list is not guaranteed and natural ids that can't be found are
+   * simply absent from the result.
+   *
+   * @param ids natural id values
+   * @param entityClass
+   * @param hints optional hints to set on the query (e.g. load graph)
+   * @return list of entities found or empty list if nothing is found
+   */
+  public <T> List<T> findAllByNaturalIds(Collection<?> ids, Class<T> entityClass,
+                                         Map<String, Object> hints) {
+    if (ids == null || ids.isEmpty()) {
+      return List.of();
+    }
+
+    CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+    CriteriaQuery<T> criteria = criteriaBuilder.createQuery(entityClass);
+    Root<T> root = criteria.from(entityClass);
+
+    criteria.where(root.get(getNaturalIdFieldName(entityClass)).in(ids));
+    criteria.select(root);
+
+    TypedQuery<T> query = entityManager.createQuery(criteria);
+    if (hints != null) {
+      hints.forEach(query::setHint);
+    }
+    return query.getResultList();
+  }
+
+  /**
+   * Find all the entities matching the provided {@link NaturalId} values using
+   * {@link #DEFAULT_NATURAL_ID_BATCH_SIZE} values per query.
+   * See {@link #findAllByNaturalIdsOrdered(Class, Collection, int)}.
+   *
+   * @param entityClass
+   * @param naturalIds natural id values
+   * @return list of entities in the same order as the natural ids
+   */
+  public <T> List<T> findAllByNaturalIdsOrdered(@NonNull Class<T> entityClass, Collection<?> naturalIds) {
+    return findAllByNaturalIdsOrdered(entityClass, naturalIds, DEFAULT_NATURAL_ID_BATCH_SIZE);
+  }
+
+  /**
+   * Find all the entities matching the provided {@link NaturalId} values using Hibernate multi-load.
+   * Entities already in the persistence context are not loaded again and the others are loaded using
+   * one query per batch.
+   *
+   * @param entityClass
+   * @param naturalIds natural id values
+   * @param batchSize maximum number of natural ids per query
+   * @return list of entities in the same order as the natural ids. Natural ids that can't be found
+   *         have a null element at their position.
+   */
+  public <T> List<T> findAllByNaturalIdsOrdered(@NonNull Class<T> entityClass, Collection<?> naturalIds,
+                                         int batchSize) {
+    if (naturalIds == null || naturalIds.isEmpty()) {
+      return List.of();
+    }
+
+    return entityManager.unwrap(Session.class)
+      .byMultipleNaturalId(entityClass)
+      .withBatchSize(batchSize)
+      .multiLoad(new ArrayList<>(naturalIds));
+  }
+
+  /**
+   * Check for the existence of all the records identified by the provided natural ids.
+   * Uses a count query per batch of {@link #DEFAULT_NATURAL_ID_BATCH_SIZE} natural ids, entities are not loaded.
+   *
+   * @param entityClass
+   * @param naturalIds natural id values
+   * @return true if all the natural ids exist (or if there is no natural id)
+   */
+  public <T> boolean existsByNaturalIds(@NonNull Class<T> entityClass, Collection<?> naturalIds) {
+    return existsByNaturalIds(entityClass, naturalIds, DEFAULT_NATURAL_ID_BATCH_SIZE);
+  }
+
+  /**
+   * See {@link #existsByNaturalIds(Class, Collection)}.
+   *
+   * @param entityClass
+   * @param naturalIds natural id values
+   * @param batchSize maximum number of natural ids per query
+   * @return true if all the natural ids exist (or if there is no natural id)
+   */
+  public <T> boolean existsByNaturalIds(@NonNull Class<T> entityClass, Collection<?> naturalIds,
+                                        int batchSize) {
+    if (naturalIds == null || naturalIds.isEmpty()) {
+      return true;
+    }
+
+    String naturalIdFieldName = getNaturalIdFieldName(entityClass);
+    List<?> distinctIds = new ArrayList<>(new LinkedHashSet<>(naturalIds));
+    for (int i = 0; i < distinctIds.size(); i += batchSize) {
+      List<?> batch = distinctIds.subList(i, Math.min(i + batchSize, distinctIds.size()));
+      long count = getResourceCount(entityClass,
+        (cb, root, em) -> new Predicate[] {root.get(naturalIdFieldName).in(batch)});
+      if (count != batch.size()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   /**
    * Find an entity by a specific property. The method assumes that the property
    * is unique.
@@ -446,6 +625,32 @@ public class BaseDAO {
     }
   }
 
+  /**
+   * Run the provided function with a {@link StatelessSession} sharing the connection (and transaction)
+   * of the current {@link EntityManager}. Entities inserted through a StatelessSession are not kept
+   * in the persistence context and are never dirty-checked.
+   * The current persistence context is flushed first so the StatelessSession can see its changes and the
+   * pending JDBC batch of the StatelessSession is executed before returning.
+   *
+   * @param jdbcBatchSize JDBC batch size to set on the StatelessSession
+   * @param work function to run with the StatelessSession
+   * @return the result of the function
+   */
+  public <T> T withStatelessSession(int jdbcBatchSize, @NonNull Function<StatelessSession, T> work) {
+    entityManager.flush();
+    Session session = entityManager.unwrap(Session.class);
+    return session.doReturningWork(connection -> {
+      // the connection is owned by the current session, closing the StatelessSession will not close it
+      try (StatelessSession statelessSession = session.getSessionFactory().openStatelessSession(connection)) {
+        statelessSession.setJdbcBatchSize(jdbcBatchSize);
+        T result = work.apply(statelessSession);
+        // closing the StatelessSession releases the pending JDBC batch without executing it
+        ((SharedSessionContractImplementor) statelessSession).getJdbcCoordinator().executeBatch();
+        return result;
+      }
+    });
+  }
+
   /**
    * Merge the state of a given entity into the current persistence context.
    *
@@ -454,12 +659,79 @@ public class BaseDAO {
    * @return returns the managed instance the state was merged to.
    */
   public <E> E update(E entity) {
-    E result = entityManager.merge(entity);
-    // Flush here to throw any validation errors:
-    entityManager.flush();
+    return update(entity, true);
+  }
+
+  /**
+   * Merge the state of a given entity into the current persistence context.
+   * Merge is skipped if the entity is already managed (the changes will be detected on flush), unless
+   * a detached or new instance is reachable through an association cascading the merge.
+   *
+   * @param <E>    Type of the entity
+   * @param entity entity to update
+   * @param flush should the changes made in the current transaction be flushed immediately to the database.
+   *              Flushing will throw any validation errors.
+   * @return returns the managed instance the state was merged to.
+   */
+  public <E> E update(E entity, boolean flush) {
+    E result = requiresMerge(entity) ? entityManager.merge(entity) : entity;
+    if (flush) {
+      entityManager.flush();
+    }
     return result;
   }
 
+  /**
+   * Checks if merge is required for the provided entity: the entity is not managed or one of its
+   * associations cascading the merge holds an instance that is not managed.
+   * Uninitialized associations are not considered since they can't hold detached instances.
+   *
+   * @param entity
+   * @return true if the entity needs to be merged
+   */
+  private boolean requiresMerge(Object entity) {
+    if (!entityManager.contains(entity)) {
+      return true;
+    }
+
+    SessionFactoryImplementor sessionFactory = entityManager.getEntityManagerFactory()
+      .unwrap(SessionFactoryImplementor.class);
+    EntityPersister entityPersister = sessionFactory.getMappingMetamodel()
+      .getEntityDescriptor(Hibernate.getClass(entity));
+    Object target = Hibernate.unproxy(entity);
+
+    Type[] types = entityPersister.getPropertyTypes();
+    CascadeStyle[] cascadeStyles = entityPersister.getPropertyCascadeStyles();
+    for (int i = 0; i < types.length; i++) {
+      if (!cascadeStyles[i].doCascade(CascadingActions.MERGE)) {
+        continue;
+      }
+
+      Object value = entityPersister.getValue(target, i);
+      if (value == null || !Hibernate.isInitialized(value)) {
+        continue;
+      }
+
+      if (types[i].isEntityType()) {
+        if (!entityManager.contains(value)) {
+          return true;
+        }
+      } else if (types[i] instanceof CollectionType collectionType &&
+          collectionType.getElementType(sessionFactory).isEntityType()) {
+        Collection<?> elements = value instanceof Map<?, ?> map ? map.values() : (Collection<?>) value;
+        for (Object element : elements) {
+          if (element != null && !entityManager.contains(element)) {
+            return true;
+          }
+        }
+      } else {
+        // e.g. embeddable with cascading associations, let merge handle it
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Delete the provided entity.
    *
@@ -537,6 +809,16 @@ public class BaseDAO {
     entityManager.detach(entity);
   }
 
+  /**
+   * Clear the persistence context, causing all managed entities to become detached.
+   * This will revert any non-flushed changes made in the current transaction.
+   *
+   * Mostly used while processing a large number of entities to keep the first-level cache small.
+   */
+  public void clear() {
+    entityManager.clear();
+  }
+
   /**
    * Given a class, this method will return the name of the field annotated with {@link Id}.
    *
@@ -550,6 +832,45 @@ public class BaseDAO {
         .getName();
   }
 
+  /**
+   * Checks if some values of the entity are set by the database instead of Hibernate: attributes mapped as
+   * not insertable or not updatable (e.g. a column with a default value, a formula) or generated by the
+   * database ({@link org.hibernate.annotations.Generated}).
+   * Those values are only available in the entity after a {@link #refresh(Object)}.
+   * The natural id (not updatable by default) and collections are not considered.
+   *
+   * @param entityClass
+   * @return true if the entity has at least one value set by the database
+   */
+  public boolean hasDatabaseGeneratedValues(@NonNull Class<?> entityClass) {
+    EntityPersister entityPersister = entityManager.getEntityManagerFactory()
+      .unwrap(SessionFactoryImplementor.class)
+      .getMappingMetamodel()
+      .getEntityDescriptor(entityClass);
+
+    if (entityPersister.hasInsertGeneratedProperties() || entityPersister.hasUpdateGeneratedProperties()) {
+      return true;
+    }
+
+    Set<Integer> naturalIdProperties = new HashSet<>();
+    if (entityPersister.hasNaturalIdentifier()) {
+      for (int i : entityPersister.getNaturalIdentifierProperties()) {
+        naturalIdProperties.add(i);
+      }
+    }
+
+    Type[] types = entityPersister.getPropertyTypes();
+    boolean[] insertable = entityPersister.getPropertyInsertability();
+    boolean[] updatable = entityPersister.getPropertyUpdateability();
+    for (int i = 0; i < types.length; i++) {
+      if (!types[i].isCollectionType() && !naturalIdProperties.contains(i) &&
+          (!insertable[i] || !updatable[i])) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * returns a {@link CriteriaBuilder} for the creation of {@link CriteriaQuery},
    * {@link Predicate}, {@link Expression}, and compound selections.
@@ -593,16 +914,82 @@ public class BaseDAO {
    * @return List of entities
    */
   public <E> List<E> resultListFromCriteria(CriteriaQuery<E> criteria, int start, int maxResult, Map<String, Object> hints) {
+    return resultListFromCriteria(criteria, null, start, maxResult, hints);
+  }
+
+  /**
+   * Same as {@link #resultListFromCriteria(CriteriaQuery, int, int, Map)} for a criteria using
+   * {@link ParameterExpression}s.
+   *
+   * @param criteria   criteria to generate the typed query
+   * @param parameters value of each parameter of the criteria or null
+   * @param start      position of first result to retrieve
+   * @param maxResult  maximum number of results to return
+   * @param hints      Hibernate hint to set on the query or null
+   * @return List of entities
+   */
+  public <E> List<E> resultListFromCriteria(CriteriaQuery<E> criteria,
+                                            Map<ParameterExpression<?>, Object> parameters,
+                                            int start, int maxResult, Map<String, Object> hints) {
     TypedQuery<E> query = entityManager.createQuery(criteria);
     if (hints != null) {
       hints.forEach(query::setHint);
     }
+    setParameters(query, parameters);
     return query
             .setFirstResult(start)
             .setMaxResults(maxResult)
             .getResultList();
   }
 
+  /**
+   * Same as {@link #resultListFromCriteria(CriteriaQuery, int, int, Map)} but returns a Stream backed
+   * by a database cursor.
+   * The Stream should be closed by the caller and consumed within a transaction.
+   *
+   * @param criteria  criteria to generate the typed query
+   * @param start     position of first result to retrieve
+   * @param maxResult maximum number of results to return
+   * @param fetchSize number of rows fetched from the database at a time
+   * @param hints     Hibernate hint to set on the query or null
+   * @return Stream of entities
+   */
+  public <E> Stream<E> resultStreamFromCriteria(CriteriaQuery<E> criteria, int start, int maxResult,
+                                                int fetchSize, Map<String, Object> hints) {
+    TypedQuery<E> query = entityManager.createQuery(criteria);
+    if (hints != null) {
+      hints.forEach(query::setHint);
+    }
+    query.setHint(QueryHints.HINT_FETCH_SIZE, fetchSize);
+    return query
+            .setFirstResult(start)
+            .setMaxResults(maxResult)
+            .getResultStream();
+  }
+
+  /**
+   * Checks if the provided attribute path (e.g. "a.b") goes through a collection attribute.
+   *
+   * @param entityClass   class of the entity at the root of the path
+   * @param attributePath dot separated attribute path
+   * @return true if one of the attributes of the path is a collection
+   */
+  public boolean isCollectionPath(Class<?> entityClass, String attributePath) {
+    ManagedType<?> type = entityManager.getMetamodel().managedType(entityClass);
+    for (String part : StringUtils.split(attributePath, ".")) {
+      Attribute<?, ?> attribute = type.getAttribute(part);
+      if (attribute.isCollection()) {
+        return true;
+      }
+      if (!(attribute instanceof SingularAttribute<?, ?> singular) ||
+        !(singular.getType() instanceof ManagedType<?> next)) {
+        return false;
+      }
+      type = next;
+    }
+    return false;
+  }
+
   /**
    * Returns the resource count from a given predicate supplier.
    *
@@ -614,6 +1001,37 @@ public class BaseDAO {
   public <E> Long getResourceCount(
     @NonNull Class<E> entityClass,
     @NonNull PredicateSupplier<E> predicateSupplier
+  ) {
+    return getResourceCount(buildCountCriteria(entityClass, predicateSupplier), null);
+  }
+
+  /**
+   * Returns the resource count of a count criteria built by {@link #buildCountCriteria(Class, PredicateSupplier)}.
+   *
+   * @param countQuery count criteria
+   * @param parameters value of each parameter of the criteria or null
+   * @return resource count
+   */
+  public Long getResourceCount(
+    @NonNull CriteriaQuery<Long> countQuery,
+    Map<ParameterExpression<?>, Object> parameters
+  ) {
+    TypedQuery<Long> query = entityManager.createQuery(countQuery);
+    setParameters(query, parameters);
+    return query.getSingleResult();
+  }
+
+  /**
+   * Build the criteria to count the resources matching the provided predicate supplier.
+   *
+   * @param <E>               entity type
+   * @param entityClass       - entity class to query cannot be null
+   * @param predicateSupplier - function to return the predicates cannot be null but can return null
+   * @return count criteria
+   */
+  public <E> CriteriaQuery<Long> buildCountCriteria(
+    @NonNull Class<E> entityClass,
+    @NonNull PredicateSupplier<E> predicateSupplier
   ) {
     CriteriaBuilder cb = entityManager.getCriteriaBuilder();
     CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
@@ -625,6 +1043,45 @@ public class BaseDAO {
     if (predicates != null) {
       countQuery.where(predicates);
     }
-    return entityManager.createQuery(countQuery).getSingleResult();
+    return countQuery;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static void setParameters(TypedQuery<?> query, Map<ParameterExpression<?>, Object> parameters) {
+    if (parameters != null) {
+      parameters.forEach((parameter, value) -> query.setParameter((Parameter<Object>) parameter, value));
+    }
+  }
+
+  /**
+   * Returns the estimated number of rows of the table of the provided entity class based
+   * on the statistics of the database (PostgreSQL pg_class.reltuples).
+   * The estimate is only as good as the latest ANALYZE (or autovacuum) on the table.
+   *
+   * @param entityClass entity class mapped to a single table
+   * @return the estimated number of rows or null if no estimate is available
+   */
+  public Long getEstimatedResourceCount(@NonNull Class<?> entityClass) {
+    EntityPersister entityPersister = entityManager.getEntityManagerFactory()
+      .unwrap(SessionFactoryImplementor.class)
+      .getMappingMetamodel()
+      .getEntityDescriptor(entityClass);
+
+    if (!(entityPersister instanceof AbstractEntityPersister aep)) {
+      return null;
+    }
+
+    Object estimate = entityManager.createNativeQuery(
+        "SELECT CAST(reltuples AS bigint) FROM pg_class WHERE oid = to_regclass(:tableName)")
+      .setParameter("tableName", aep.getTableName())
+      .getResultStream()
+      .findFirst()
+      .orElse(null);
+
+    // reltuples is -1 when the table was never analyzed
+    if (estimate instanceof Number n && n.longValue() >= 0) {
+      return n.longValue();
+    }
+    return null;
   }
 }
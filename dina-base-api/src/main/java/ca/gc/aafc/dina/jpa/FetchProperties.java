@@ -0,0 +1,60 @@
+package ca.gc.aafc.dina.jpa;
+
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings controlling how Hibernate loads the lazy relationships that are not part of the query
+ * (e.g. touched by a mapper or augmentEntity).
+ *
+ * Example:
+ * <pre>
+ * dina:
+ *   jpa:
+ *     fetch:
+ *       default-batch-fetch-size: 32
+ *       relations:
+ *         "[ca.gc.aafc.collection.entity.MaterialSample.organism]":
+ *           subselect: true
+ *         "[ca.gc.aafc.collection.entity.Collection]":
+ *           batch-size: 100
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "dina.jpa.fetch")
+@Getter
+@Setter
+public class FetchProperties {
+
+  /**
+   * Number of lazy relationships (of the same type) loaded by a single query.
+   * Used as hibernate.default_batch_fetch_size unless it is set explicitly. 0 or less to disable.
+   */
+  private int defaultBatchFetchSize = 32;
+
+  /**
+   * Settings per relation. The key is the role of a to-many relationship (fully qualified class name of
+   * the entity followed by the attribute name) or the fully qualified class name of an entity (for
+   * the to-one relationships targeting it).
+   */
+  private Map<String, RelationSettings> relations = new HashMap<>();
+
+  @Getter
+  @Setter
+  public static class RelationSettings {
+
+    /**
+     * Overrides the default batch fetch size for this relation.
+     */
+    private Integer batchSize;
+
+    /**
+     * To-many relationships only. Load the relationship of all the entities returned by the
+     * query that loaded the owner using a single subselect.
+     */
+    private boolean subselect = false;
+  }
+}
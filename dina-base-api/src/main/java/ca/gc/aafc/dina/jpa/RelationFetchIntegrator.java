@@ -0,0 +1,68 @@
+package ca.gc.aafc.dina.jpa;
+
+import java.util.Map;
+import lombok.NonNull;
+import lombok.extern.log4j.Log4j2;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.mapping.Collection;
+import org.hibernate.mapping.PersistentClass;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+/**
+ * Hibernate {@link Integrator} applying {@link FetchProperties.RelationSettings} to the mapping.
+ * Same as using {@link org.hibernate.annotations.BatchSize} or
+ * {@link org.hibernate.annotations.Fetch} (SUBSELECT) on the entities.
+ * Integrators are called before the mapping model is built so the settings are used by the loaders.
+ */
+@Log4j2
+public class RelationFetchIntegrator implements Integrator {
+
+  private final Map<String, FetchProperties.RelationSettings> relations;
+
+  public RelationFetchIntegrator(@NonNull Map<String, FetchProperties.RelationSettings> relations) {
+    this.relations = relations;
+  }
+
+  @Override
+  public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                        SessionFactoryImplementor sessionFactory) {
+    relations.forEach((name, settings) -> {
+      Collection collection = metadata.getCollectionBinding(name);
+      if (collection != null) {
+        applyToCollection(collection, settings);
+        return;
+      }
+
+      PersistentClass entity = metadata.getEntityBinding(name);
+      if (entity != null) {
+        if (settings.getBatchSize() != null) {
+          entity.setBatchSize(settings.getBatchSize());
+        }
+        if (settings.isSubselect()) {
+          log.warn("subselect is only supported on to-many relationships, ignored for {}", name);
+        }
+        return;
+      }
+      log.warn("Unknown relation or entity {}, fetch settings ignored", name);
+    });
+  }
+
+  private static void applyToCollection(Collection collection, FetchProperties.RelationSettings settings) {
+    if (settings.getBatchSize() != null) {
+      collection.setBatchSize(settings.getBatchSize());
+    }
+    if (settings.isSubselect()) {
+      collection.setSubselectLoadable(true);
+      collection.getOwner().setSubselectLoadableCollections(true);
+    }
+  }
+
+  @Override
+  public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    // nothing to clean
+  }
+}
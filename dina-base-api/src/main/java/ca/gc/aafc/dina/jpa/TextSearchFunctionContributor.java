@@ -0,0 +1,31 @@
+package ca.gc.aafc.dina.jpa;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers the PostgreSQL text search functions that can't be expressed with the CriteriaBuilder.
+ * Loaded by Hibernate using the ServiceLoader (META-INF/services/org.hibernate.boot.model.FunctionContributor).
+ *
+ * {@value #TRIGRAM_SIMILAR_FUNCTION_NAME}(a, b) is rendered as the pg_trgm similarity operator (a % b)
+ * so a GIN (gin_trgm_ops) index on the column can be used. Requires the pg_trgm extension.
+ */
+public class TextSearchFunctionContributor implements FunctionContributor {
+
+  public static final String TRIGRAM_SIMILAR_FUNCTION_NAME = "trgm_similar";
+
+  @Override
+  public void contributeFunctions(FunctionContributions functionContributions) {
+    if (!(functionContributions.getDialect() instanceof PostgreSQLDialect)) {
+      return;
+    }
+
+    BasicType<Boolean> booleanType = functionContributions.getTypeConfiguration().getBasicTypeRegistry()
+      .resolve(StandardBasicTypes.BOOLEAN);
+    functionContributions.getFunctionRegistry()
+      .registerPattern(TRIGRAM_SIMILAR_FUNCTION_NAME, "(?1 % ?2)", booleanType);
+  }
+}
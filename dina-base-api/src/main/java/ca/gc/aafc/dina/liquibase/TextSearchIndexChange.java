@@ -0,0 +1,147 @@
+package ca.gc.aafc.dina.liquibase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import lombok.Getter;
+import lombok.Setter;
+
+import org.apache.commons.lang3.StringUtils;
+
+import liquibase.change.custom.CustomSqlChange;
+import liquibase.change.custom.CustomSqlRollback;
+import liquibase.database.Database;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+import liquibase.statement.SqlStatement;
+import liquibase.statement.core.RawSqlStatement;
+
+/**
+ * Liquibase custom change creating the indexes used by the text search filters on the provided columns.
+ * <ul>
+ *   <li>TRIGRAM: GIN (gin_trgm_ops) index used by LIKE, ILIKE and SIMILAR filters (including %value%).
+ *   Requires the pg_trgm extension.</li>
+ *   <li>LOWER: lower(column) expression index used by the case-insensitive sort.</li>
+ * </ul>
+ *
+ * Usage in a changelog:
+ * <pre>
+ * &lt;changeSet id="add_text_search_indexes" author="dina"&gt;
+ *   &lt;customChange class="ca.gc.aafc.dina.liquibase.TextSearchIndexChange"&gt;
+ *     &lt;param name="tableName" value="person"/&gt;
+ *     &lt;param name="columnNames" value="name,email"/&gt;
+ *     &lt;param name="indexType" value="TRIGRAM"/&gt;
+ *   &lt;/customChange&gt;
+ * &lt;/changeSet&gt;
+ * </pre>
+ * One index is created per column, named {table}_{column}_trgm_idx or {table}_{column}_lower_idx.
+ */
+@Getter
+@Setter
+public class TextSearchIndexChange implements CustomSqlChange, CustomSqlRollback {
+
+  public enum IndexType { TRIGRAM, LOWER }
+
+  // PostgreSQL identifiers limit
+  private static final int MAX_IDENTIFIER_LENGTH = 63;
+  private static final Pattern IDENTIFIER = Pattern.compile("[a-zA-Z_][a-zA-Z0-9_]*");
+
+  private String schemaName;
+  private String tableName;
+
+  /**
+   * Comma separated column names
+   */
+  private String columnNames;
+  private String indexType = IndexType.TRIGRAM.name();
+
+  @Override
+  public SqlStatement[] generateStatements(Database database) {
+    IndexType type = IndexType.valueOf(indexType);
+    String table = StringUtils.isBlank(schemaName) ? tableName : schemaName + "." + tableName;
+
+    List<SqlStatement> statements = new ArrayList<>();
+    for (String column : getColumns()) {
+      statements.add(new RawSqlStatement(switch (type) {
+        case TRIGRAM -> "CREATE INDEX IF NOT EXISTS " + indexName(column, type) + " ON " + table +
+          " USING gin (" + column + " gin_trgm_ops)";
+        case LOWER -> "CREATE INDEX IF NOT EXISTS " + indexName(column, type) + " ON " + table +
+          " (lower(" + column + "))";
+      }));
+    }
+    return statements.toArray(SqlStatement[]::new);
+  }
+
+  @Override
+  public SqlStatement[] generateRollbackStatements(Database database) {
+    IndexType type = IndexType.valueOf(indexType);
+    String schemaPrefix = StringUtils.isBlank(schemaName) ? "" : schemaName + ".";
+    return getColumns().stream()
+      .map(column -> new RawSqlStatement("DROP INDEX IF EXISTS " + schemaPrefix + indexName(column, type)))
+      .toArray(SqlStatement[]::new);
+  }
+
+  @Override
+  public String getConfirmationMessage() {
+    return indexType + " text search indexes created on " + tableName + " (" + columnNames + ")";
+  }
+
+  @Override
+  public void setUp() {
+    // nothing to set up
+  }
+
+  @Override
+  public void setFileOpener(ResourceAccessor resourceAccessor) {
+    // not used
+  }
+
+  /**
+   * Identifiers are used to build the SQL so they must be simple (unquoted) identifiers.
+   */
+  @Override
+  public ValidationErrors validate(Database database) {
+    ValidationErrors errors = new ValidationErrors();
+    errors.checkRequiredField("tableName", tableName);
+    errors.checkRequiredField("columnNames", columnNames);
+    if (errors.hasErrors()) {
+      return errors;
+    }
+
+    IndexType type;
+    try {
+      type = IndexType.valueOf(indexType);
+    } catch (IllegalArgumentException | NullPointerException ex) {
+      return errors.addError("indexType must be one of TRIGRAM, LOWER");
+    }
+
+    if (StringUtils.isNotBlank(schemaName) && !IDENTIFIER.matcher(schemaName).matches()) {
+      errors.addError("Invalid schemaName: " + schemaName);
+    }
+    if (!IDENTIFIER.matcher(tableName).matches()) {
+      errors.addError("Invalid tableName: " + tableName);
+    }
+    for (String column : getColumns()) {
+      if (!IDENTIFIER.matcher(column).matches()) {
+        errors.addError("Invalid column name: " + column);
+      } else if (indexName(column, type).length() > MAX_IDENTIFIER_LENGTH) {
+        errors.addError("Index name too long: " + indexName(column, type));
+      }
+    }
+    return errors;
+  }
+
+  private List<String> getColumns() {
+    List<String> columns = new ArrayList<>();
+    for (String column : StringUtils.split(columnNames, ',')) {
+      if (StringUtils.isNotBlank(column)) {
+        columns.add(column.trim());
+      }
+    }
+    return columns;
+  }
+
+  private String indexName(String column, IndexType type) {
+    return tableName + "_" + column + (type == IndexType.TRIGRAM ? "_trgm_idx" : "_lower_idx");
+  }
+}
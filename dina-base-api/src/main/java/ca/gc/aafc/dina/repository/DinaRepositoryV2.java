@@ -1,19 +1,30 @@
 package ca.gc.aafc.dina.repository;
 
+import org.apache.commons.beanutils.NestedNullException;
+import org.apache.commons.beanutils.PropertyUtils;
 import org.apache.commons.collections.MapUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.info.BuildProperties;
 import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.RepresentationModel;
+import org.springframework.hateoas.config.HypermediaMappingInformation;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.github.tennaito.rsql.misc.ArgumentParser;
 import com.toedter.spring.hateoas.jsonapi.JsonApiModelBuilder;
 import com.toedter.spring.hateoas.jsonapi.JsonApiTypeForClass;
+import com.toedter.spring.hateoas.jsonapi.MediaTypes;
 
 import ca.gc.aafc.dina.dto.ExternalRelationDto;
 import ca.gc.aafc.dina.dto.JsonApiDto;
@@ -28,9 +39,14 @@ import ca.gc.aafc.dina.exception.ResourcesNotFoundException;
 import ca.gc.aafc.dina.filter.DinaFilterArgumentParser;
 import ca.gc.aafc.dina.filter.EntityFilterHelper;
 import ca.gc.aafc.dina.filter.FilterComponent;
+import ca.gc.aafc.dina.filter.FilterParameterBinder;
+import ca.gc.aafc.dina.filter.PageCursor;
 import ca.gc.aafc.dina.filter.QueryComponent;
+import ca.gc.aafc.dina.filter.QueryComponentCache;
 import ca.gc.aafc.dina.filter.QueryStringParser;
 import ca.gc.aafc.dina.filter.SimpleFilterHandlerV2;
+import ca.gc.aafc.dina.jpa.BaseDAO;
+import ca.gc.aafc.dina.jpa.PredicateSupplier;
 import ca.gc.aafc.dina.json.JsonDocumentInspector;
 import ca.gc.aafc.dina.jsonapi.JsonApiBulkDocument;
 import ca.gc.aafc.dina.jsonapi.JsonApiBulkResourceIdentifierDocument;
@@ -45,23 +61,36 @@ import ca.gc.aafc.dina.service.AuditService;
 import ca.gc.aafc.dina.service.DinaService;
 import ca.gc.aafc.dina.util.ReflectionUtils;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.net.URI;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import jakarta.persistence.Transient;
+import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.NonNull;
 import lombok.extern.log4j.Log4j2;
 
@@ -71,9 +100,22 @@ public class DinaRepositoryV2<D extends JsonApiResource, E extends DinaEntity>
 
   public static final String JSON_API_BULK = "application/vnd.api+json; ext=bulk";
   public static final String INCLUDE_PERMISSION_HEADER_KEY = "include-dina-permission";
+  public static final String PREFER_HEADER_KEY = "Prefer";
+  public static final String PREFER_RETURN_MINIMAL = "return=minimal";
+
+  private static final String PROJECTION_UUID_ATTRIBUTE = "uuid";
+  private static final String PROJECTION_GROUP_ATTRIBUTE = "group";
+
+  // used to run the count query in parallel (see TotalCountMode.PARALLEL)
+  private static final Duration DEFAULT_PARALLEL_COUNT_TIMEOUT = Duration.ofSeconds(10);
 
   public static final String JSON_API_BULK_PATH = "bulk";
   public static final String JSON_API_BULK_LOAD_PATH = "bulk-load";
+  public static final String EXPORT_PATH = "export";
+
+  // newline-delimited JSON (JSON Lines) used by the export
+  public static final String NDJSON_VALUE = "application/x-ndjson";
+  private static final int DEFAULT_EXPORT_CLEAR_INTERVAL = 500;
 
   protected static final TypeReference<Map<String, Object>> IT_OM_TYPE_REF = new TypeReference<>() { };
 
@@ -81,6 +123,8 @@ public class DinaRepositoryV2<D extends JsonApiResource, E extends DinaEntity>
   private static final int DEFAULT_PAGE_LIMIT = 20;
   private static final int MAX_PAGE_LIMIT = 1000;
 
+  private static final int MAX_ATTRIBUTE_SET_CACHE_SIZE = 256;
+
   private final DinaAuthorizationService authorizationService;
   private final AuditService auditService;
   private final DinaService<E> dinaService;
@@ -98,8 +142,28 @@ public class DinaRepositoryV2<D extends JsonApiResource, E extends DinaEntity>
   protected final JsonApiModelAssistant<D> jsonApiModelAssistant;
 
   protected ObjectMapper objMapper;
+
+  // ObjectMapper configured for JSON:API, only used to stream responses
+  private ObjectMapper jsonApiObjMapper;
   private final ArgumentParser rsqlArgumentParser = new DinaFilterArgumentParser();
 
+  // attribute sets only depend on the includes and calculated attributes requested, so they are computed once
+  private final Map<AttributeSetKey, Set<String>> attributeSetCache = new ConcurrentHashMap<>();
+  private final Map<JsonApiImmutable.ImmutableOn, Set<String>> immutableAttributesCache = new ConcurrentHashMap<>();
+  private Set<String> creatableAttributes;
+
+  // unique attribute added to the sort attributes to get a deterministic order (used by keyset pagination)
+  private String keysetTieBreaker;
+
+  // computed on first use, see isRefreshRequiredAfterWrite
+  private Boolean refreshRequiredAfterWrite;
+
+  // criteria built for a filter shape, reused with different values
+  private final QueryPlanCache queryPlanCache;
+
+  // optional, see setQueryComponentCache
+  private QueryComponentCache queryComponentCache;
+
   public DinaRepositoryV2(@NonNull DinaService<E> dinaService,
                           @NonNull DinaAuthorizationService authorizationService,
                           @NonNull Optional<AuditService> auditService,
@@ -140,6 +204,7 @@ public class DinaRepositoryV2<D extends JsonApiResource, E extends DinaEntity>
     this.dinaMapper = dinaMapper;
     this.buildProperties = buildProperties;
     this.registry = registry;
+    this.queryPlanCache = new QueryPlanCache(jsonApiType != null ? jsonApiType : resourceClass.getSimpleName());
 
     // configure an assistant for this specific resource
     this.jsonApiDtoAssistant = new JsonApiDtoAssistant<>(registry,
@@ -174,8 +239,30 @@ public class DinaRepositoryV2<D extends JsonApiResource, E extends DinaEntity>
       Objects.toString(dto.getJsonApiType(), "") + "/" + Objects.toString(dto.getJsonApiId(), ""));
   }
 
+  /**
+   * Checks if the client asked for a minimal response using the {@value #PREFER_HEADER_KEY} header (RFC 7240).
+   * @param req the request, can be null
+   * @return
+   */
+  private static boolean isReturnMinimalPreferred(HttpServletRequest req) {
+    if (req == null) {
+      return false;
+    }
+    var preferHeaders = req.getHeaders(PREFER_HEADER_KEY);
+    while (preferHeaders != null && preferHeaders.hasMoreElements()) {
+      for (String preference : preferHeaders.nextElement().split(",")) {
+        if (PREFER_RETURN_MINIMAL.equalsIgnoreCase(preference.trim())) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
   /**
    * Handles bulk load.
+   * All the resources are loaded using a single query. The order of the response matches the order
+   * of the identifiers in the provided document.
    * @param jsonApiBulkDocument
    * @return
    */
@@ -184,36 +271,52 @@ public class DinaRepositoryV2<D extends JsonApiResource, E extends DinaEntity>
       throws ResourcesNotFoundException, ResourcesGoneException {
 
     String queryString = req != null ? decodeQueryString(req) : null;
-    List<JsonApiDto<D>> dtos = new ArrayList<>();
 
-    // initialize to null since it won't be used most of the time
-    List<String> resourcesNotFound = null;
-    Map<String, String> resourcesGone = null;
+    // the only parts of QueryComponent that can be used on bulk load is "includes" and "fields"
+    QueryComponent queryComponents = QueryStringParser.parse(queryString, queryComponentCache);
+    Set<String> includes = queryComponents.getIncludes() != null ? queryComponents.getIncludes() : Set.of();
+    Map<String, List<String>> fields = queryComponents.getFields();
+    Map<String, List<String>> optionalFields = queryComponents.getOptionalFields();
 
-    for (var data : jsonApiBulkDocument.getData()) {
-      try {
-        dtos.add(getOne(data.getId(), queryString));
-      } catch (ResourceNotFoundException exNotFound) {
-        if (resourcesNotFound == null) {
-          resourcesNotFound = new ArrayList<>();
-        }
-        resourcesNotFound.add(exNotFound.getIdentifier());
-      } catch (ResourceGoneException exGone) {
-        if (resourcesGone == null) {
-          resourcesGone = new HashMap<>();
+    validateIncludes(includes);
+
+    List<UUID> identifiers = jsonApiBulkDocument.getData().stream()
+      .map(JsonApiDocument.ResourceIdentifier::getId).toList();
+
+    // attributes are the same for all resources
+    Set<String> attributes = buildAttributeSet(includes, optionalFields);
+
+    List<UUID> missingIdentifiers = new ArrayList<>();
+    List<JsonApiDto<D>> dtos = dinaService.supplyReadOnly(() -> {
+      Map<UUID, E> entitiesByUuid = findAllByUuid(identifiers, includes);
+
+      // make sure everything is there and authorized before doing any mapping
+      for (UUID identifier : identifiers) {
+        if (!entitiesByUuid.containsKey(identifier)) {
+          missingIdentifiers.add(identifier);
         }
-        resourcesGone.put(exGone.getIdentifier(), exGone.getLink());
       }
-    }
+      if (!missingIdentifiers.isEmpty()) {
+        return List.of();
+      }
+      for (E entity : entitiesByUuid.values()) {
+        authorizationService.authorizeRead(entity);
+      }
 
-    // errors handling
-    if (resourcesNotFound != null) {
-      throw ResourcesNotFoundException.create(jsonApiType, resourcesNotFound);
-    }
+      List<JsonApiDto<D>> loaded = new ArrayList<>(identifiers.size());
+      for (UUID identifier : identifiers) {
+        E entity = entitiesByUuid.get(identifier);
+        if (MapUtils.isNotEmpty(optionalFields)) {
+          dinaService.handleOptionalFields(entity, optionalFields);
+        }
+        dinaService.augmentEntity(entity, includes);
+        loaded.add(jsonApiDtoAssistant.toJsonApiDto(dinaMapper.toDto(entity, attributes, null), fields, includes));
+      }
+      return loaded;
+    });
 
-    if (resourcesGone != null) {
-      throw ResourcesGoneException.create(jsonApiType, resourcesGone);
-    }
+    // Throw not found or gone exceptions if required.
+    checkAllFound(missingIdentifiers, Map.of());
 
     JsonApiModelBuilder builder = jsonApiModelAssistant.createJsonApiModelBuilder(dtos, null);
 
@@ -259,17 +362,18 @@ public class DinaRepositoryV2<D extends JsonApiResource, E extends DinaEntity>
   }
 
   /**
-   * Handles bulk updates.
+   * Handles bulk creates.
    * @param jsonApiBulkDocument
    * @param dtoCustomizer
    */
   public ResponseEntity<RepresentationModel<?>> handleBulkCreate(JsonApiBulkDocument jsonApiBulkDocument,
                                Consumer<D> dtoCustomizer) {
 
-    List<JsonApiDto<D> > dtos = new ArrayList<>();
+    List<JsonApiDocument> docsToCreate = new ArrayList<>(jsonApiBulkDocument.getData().size());
     for (var data : jsonApiBulkDocument.getData()) {
-      dtos.add(create(JsonApiDocument.builder().data(data).build(), dtoCustomizer));
+      docsToCreate.add(JsonApiDocument.builder().data(data).build());
     }
+    List<JsonApiDto<D>> dtos = createAll(docsToCreate, dtoCustomizer);
 
     JsonApiModelBuilder builder = jsonApiModelAssistant.createJsonApiModelBuilder(dtos, null);
     return ResponseEntity.ok().body(builder.build());
@@ -283,12 +387,41 @@ public class DinaRepositoryV2<D extends JsonApiResource, E extends DinaEntity>
    */
   public ResponseEntity<RepresentationModel<?>> handleCreate(JsonApiDocument postedDocument,
                                                              Consumer<D> dtoCustomizer) {
+    return handleCreate(postedDocument, dtoCustomizer, null);
+  }
+
+  /**
+   * Handles create at the Spring hateoas level.
+   * If the request includes the header {@value #PREFER_HEADER_KEY}: {@value #PREFER_RETURN_MINIMAL}, only the
+   * location of the created resource is returned (no body).
+   * @param postedDocument
+   * @param dtoCustomizer
+   * @param req the request, can be null
+   * @return
+   */
+  public ResponseEntity<RepresentationModel<?>> handleCreate(JsonApiDocument postedDocument,
+                                                             Consumer<D> dtoCustomizer,
+                                                             HttpServletRequest req) {
 
     if (postedDocument == null) {
       return ResponseEntity.badRequest().build();
     }
 
+    boolean returnMinimal = isReturnMinimalPreferred(req);
+
+    // the full dto is not required (unless audited), only the identifier to build the location
+    if (returnMinimal && auditService == null) {
+      E created = createEntity(postedDocument, dtoCustomizer);
+      D dto = dinaMapper.toDto(created, Set.of(PROJECTION_UUID_ATTRIBUTE), null);
+      return ResponseEntity.created(generateLinkToResource(dto).toUri()).build();
+    }
+
     JsonApiDto<D> jsonApiDto = create(postedDocument, dtoCustomizer);
+
+    if (returnMinimal) {
+      return ResponseEntity.created(generateLinkToResource(jsonApiDto.getDto()).toUri()).build();
+    }
+
     JsonApiModelBuilder builder = jsonApiModelAssistant.createJsonApiModelBuilder(jsonApiDto);
     builder.link(generateLinkToResource(jsonApiDto.getDto()));
 
@@ -302,14 +435,16 @@ public class DinaRepositoryV2<D extends JsonApiResource, E extends DinaEntity>
    * Handles bulk updates.
    * @param jsonApiBulkDocument
    * @return
-   * @throws ResourceNotFoundException
+   * @throws ResourceNotFoundException a {@link ResourcesNotFoundException} listing all the resources not found
+   * @throws ResourceGoneException a {@link ResourcesGoneException} listing all the deleted resources
    */
   public ResponseEntity<RepresentationModel<?>> handleBulkUpdate(JsonApiBulkDocument jsonApiBulkDocument)
       throws ResourceNotFoundException, ResourceGoneException {
-    List<JsonApiDto<D> > dtos = new ArrayList<>();
+    List<JsonApiDocument> patchDtos = new ArrayList<>(jsonApiBulkDocument.getData().size());
     for (var data : jsonApiBulkDocument.getData()) {
-      dtos.add(update(JsonApiDocument.builder().data(data).build()));
+      patchDtos.add(JsonApiDocument.builder().data(data).build());
     }
+    List<JsonApiDto<D>> dtos = updateAll(patchDtos);
 
     JsonApiModelBuilder builder = jsonApiModelAssistant.createJsonApiModelBuilder(dtos, null);
     return ResponseEntity.ok().body(builder.build());
@@ -324,16 +459,40 @@ public class DinaRepositoryV2<D extends JsonApiResource, E extends DinaEntity>
   public ResponseEntity<RepresentationModel<?>> handleUpdate(JsonApiDocument partialPatchDto,
                                                              UUID id)
       throws ResourceNotFoundException, ResourceGoneException {
+    return handleUpdate(partialPatchDto, id, null);
+  }
+
+  /**
+   * Handles update at the Spring hateoas level.
+   * If the request includes the header {@value #PREFER_HEADER_KEY}: {@value #PREFER_RETURN_MINIMAL},
+   * 204 (no content) is returned.
+   * @param partialPatchDto
+   * @param id
+   * @param req the request, can be null
+   * @return
+   */
+  public ResponseEntity<RepresentationModel<?>> handleUpdate(JsonApiDocument partialPatchDto,
+                                                             UUID id, HttpServletRequest req)
+      throws ResourceNotFoundException, ResourceGoneException {
 
     // Sanity check
     if (!Objects.equals(id, partialPatchDto.getId())) {
       return ResponseEntity.badRequest().build();
     }
 
-    update(partialPatchDto);
+    boolean returnMinimal = isReturnMinimalPreferred(req);
+
+    // the dto is not returned so it is only built if audited
+    if (returnMinimal && auditService == null) {
+      updateEntity(partialPatchDto);
+      return ResponseEntity.noContent().build();
+    }
+
+    JsonApiDto<D> jsonApiDto = update(partialPatchDto);
 
-    // reload dto
-    JsonApiDto<D> jsonApiDto = getOne(partialPatchDto.getId(), null);
+    if (returnMinimal) {
+      return ResponseEntity.noContent().build();
+    }
 
     JsonApiModelBuilder builder = jsonApiModelAssistant.createJsonApiModelBuilder(jsonApiDto);
 
@@ -344,12 +503,13 @@ public class DinaRepositoryV2<D extends JsonApiResource, E extends DinaEntity>
    * Handles bulk deletes.
    * @param jsonApiBulkDocument
    * @return
+   * @throws ResourceNotFoundException a {@link ResourcesNotFoundException} listing all the resources not found
+   * @throws ResourceGoneException a {@link ResourcesGoneException} listing all the deleted resources
    */
   public ResponseEntity<RepresentationModel<?>> handleBulkDelete(JsonApiBulkResourceIdentifierDocument jsonApiBulkDocument)
       throws ResourceNotFoundException, ResourceGoneException {
-    for (var data : jsonApiBulkDocument.getData()) {
-      delete(data.getId());
-    }
+    deleteAll(jsonApiBulkDocument.getData().stream()
+      .map(JsonApiDocument.ResourceIdentifier::getId).toList());
     return ResponseEntity.noContent().build();
   }
 
@@ -389,92 +549,583 @@ public class DinaRepositoryV2<D extends JsonApiResource, E extends DinaEntity>
       ResourceGoneException {
 
     // the only parts of QueryComponent that can be used on getOne is "includes" and "fields"
-    QueryComponent queryComponents = QueryStringParser.parse(queryString);
+    QueryComponent queryComponents = QueryStringParser.parse(queryString, queryComponentCache);
     Set<String> includes = queryComponents.getIncludes() != null ? queryComponents.getIncludes() : Set.of();
     Map<String, List<String>> fields = queryComponents.getFields();
     Map<String, List<String>> optionalFields = queryComponents.getOptionalFields();
 
     validateIncludes(includes);
 
-    E entity = dinaService.findOne(identifier, entityClass, includes);
+    Set<String> attributes = buildAttributeSet(includes, optionalFields);
 
-    // Throw not found or gone exceptions if required.
-    handleEntityAuditExceptions(entity, identifier);
+    // loaded and mapped within a read-only transaction so it can be routed to a read replica
+    JsonApiDto<D> jsonApiDto = dinaService.supplyReadOnly(() -> {
+      E entity = dinaService.findOne(identifier, entityClass, includes);
+      if (entity == null) {
+        return null;
+      }
 
-    authorizationService.authorizeRead(entity);
+      authorizationService.authorizeRead(entity);
 
-    if (MapUtils.isNotEmpty(optionalFields)) {
-      dinaService.handleOptionalFields(entity, optionalFields);
-    }
+      if (MapUtils.isNotEmpty(optionalFields)) {
+        dinaService.handleOptionalFields(entity, optionalFields);
+      }
 
-    dinaService.augmentEntity(entity, includes);
+      dinaService.augmentEntity(entity, includes);
 
-    Set<String> attributes = new HashSet<>(registry.getAttributesPerClass().get(entityClass));
-    attributes.addAll(includes);
-    addCalculatedAttributes(attributes, optionalFields);
-    addNestedAttributesFromIncludes(attributes, includes);
+      D dto = dinaMapper.toDto(entity, attributes, null);
 
-    D dto = dinaMapper.toDto(entity, attributes, null);
+      if (includePermissions) {
+        return jsonApiDtoAssistant.toJsonApiDto(dto, buildResourceObjectPermissionMeta(entity),
+          fields, includes);
+      }
+      return jsonApiDtoAssistant.toJsonApiDto(dto, fields, includes);
+    });
 
-    if (includePermissions) {
-      return jsonApiDtoAssistant.toJsonApiDto(dto, buildResourceObjectPermissionMeta(entity),
-        fields, includes);
+    // Throw not found or gone exceptions if required.
+    if (jsonApiDto == null) {
+      handleEntityAuditExceptions(null, identifier);
     }
-
-    return jsonApiDtoAssistant.toJsonApiDto(dto, fields, includes);
+    return jsonApiDto;
   }
 
   public PagedResource<JsonApiDto<D>> getAll(String queryString) {
-    QueryComponent queryComponents = QueryStringParser.parse(queryString);
+    QueryComponent queryComponents = QueryStringParser.parse(queryString, queryComponentCache);
     return getAll(queryComponents);
   }
 
+  /**
+   * Load a page of resources. The page and the count (except {@link TotalCountMode#PARALLEL}) are loaded within
+   * the same read-only transaction so they see the same data (and use the same read replica, if enabled).
+   * @param qc
+   * @return
+   */
   public PagedResource<JsonApiDto<D>> getAll(QueryComponent qc) {
 
+    FindAllQuery query = prepareFindAll(qc);
+
+    TotalCountMode countMode = getTotalCountMode();
+    Supplier<Long> countSupplier = buildCountSupplier(query);
+
+    // start the count right away so it runs while the page is loaded
+    Supplier<Long> parallelCount = countMode == TotalCountMode.PARALLEL ?
+      dinaService.parallelResourceCount(countSupplier, getParallelCountTimeout()) : null;
+
+    return dinaService.supplyReadOnly(() -> loadPage(query, countMode, countSupplier, parallelCount));
+  }
+
+  private PagedResource<JsonApiDto<D>> loadPage(FindAllQuery query, TotalCountMode countMode,
+                                                Supplier<Long> countSupplier, Supplier<Long> parallelCount) {
+    List<String> projection = buildProjection(query);
+    List<E> entities;
+    if (projection != null) {
+      entities = loadProjectedEntities(query, projection);
+    } else {
+      entities = query.isFiqlBased() ?
+        loadEntities(query.queryComponents().getFiql(), query.pageOffset(), query.pageLimit(),
+          query.queryComponents().getSorts(), query.includes(), query.relationshipsPath()) :
+        loadEntities(query);
+    }
+
+    List<JsonApiDto<D>> dtos = new ArrayList<>(entities.size());
+    for (E e : entities) {
+      dtos.add(projection != null ? toProjectedJsonApiDto(e, projection, query) : toJsonApiDto(e, query));
+    }
+
+    Long resourceCount = resolveCount(countMode, countSupplier, parallelCount, query);
+
+    // only provide a cursor if keyset pagination is used and there is potentially a next page
+    String nextPageCursor = query.isKeysetBased() && entities.size() == query.pageLimit() ?
+      toPageCursor(entities.getLast(), query.sorts()) : null;
+
+    return new PagedResource<>(query.isKeysetBased() ? 0 : query.pageOffset(), query.pageLimit(),
+      resourceCount != null ? resourceCount.intValue() : 0, dtos, nextPageCursor, resourceCount != null);
+  }
+
+  /**
+   * Same as {@link #getAll(QueryComponent)} but the resources are written to the provided
+   * {@link JsonApiStreamingWriter} one at a time instead of being returned as a list.
+   * Entities are read from a Stream and detached once written so only one resource is held in memory at a time.
+   * Should be called within a transaction to allow the database to use a cursor.
+   *
+   * @param qc
+   * @param writer writer where the resources will be written. {@link JsonApiStreamingWriter#finish(Integer, String)}
+   *               is called by this method.
+   * @throws IOException
+   */
+  public void writeAll(QueryComponent qc, JsonApiStreamingWriter<D> writer) throws IOException {
+    writeAll(prepareFindAll(qc), writer);
+  }
+
+  private void writeAll(FindAllQuery query, JsonApiStreamingWriter<D> writer) throws IOException {
+    validateStreamingIncludes(query);
+
+    TotalCountMode countMode = getTotalCountMode();
+    Supplier<Long> countSupplier = buildCountSupplier(query);
+    Supplier<Long> parallelCount = countMode == TotalCountMode.PARALLEL ?
+      dinaService.parallelResourceCount(countSupplier, getParallelCountTimeout()) : null;
+
+    int written = 0;
+    String nextPageCursor = null;
+
+    try (Stream<E> entities = streamEntities(query)) {
+      for (Iterator<E> it = entities.iterator(); it.hasNext(); ) {
+        E e = it.next();
+        writer.writeResource(toJsonApiDto(e, query));
+        written++;
+
+        // only provide a cursor if keyset pagination is used and there is potentially a next page
+        if (query.isKeysetBased() && written == query.pageLimit()) {
+          nextPageCursor = toPageCursor(e, query.sorts());
+        }
+        dinaService.detach(e);
+      }
+    }
+
+    Long resourceCount = resolveCount(countMode, countSupplier, parallelCount, query);
+    writer.finish(resourceCount != null ? resourceCount.intValue() : null, nextPageCursor);
+  }
+
+  /**
+   * Handles findAll at the Spring hateoas level but writes the response directly to the
+   * {@link HttpServletResponse} output stream. See {@link #writeAll(QueryComponent, JsonApiStreamingWriter)}.
+   * Requires the JSON:API {@link ObjectMapper} (see {@link #setHypermediaMappingInformation(Collection)}).
+   *
+   * @param req used for query string
+   * @param res response where the document is written
+   * @throws IOException
+   */
+  public void handleFindAllStreaming(HttpServletRequest req, HttpServletResponse res) throws IOException {
+    if (jsonApiObjMapper == null) {
+      throw new IllegalStateException("No JSON:API ObjectMapper available");
+    }
+
+    FindAllQuery query;
+    try {
+      // validate the query before anything is written to the response
+      query = prepareFindAll(QueryStringParser.parse(req != null ? decodeQueryString(req) : null,
+        queryComponentCache));
+      validateStreamingIncludes(query);
+    } catch (IllegalArgumentException iaEx) {
+      res.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+      return;
+    }
+
+    res.setStatus(HttpServletResponse.SC_OK);
+    res.setContentType(MediaTypes.JSON_API_VALUE);
+    res.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+    try (JsonApiStreamingWriter<D> writer = new JsonApiStreamingWriter<>(jsonApiObjMapper,
+      buildProperties.getVersion(), res.getOutputStream())) {
+      writeAll(query, writer);
+    }
+  }
+
+  /**
+   * Export all the resources matching the query as newline-delimited JSON (one JSON:API document per line).
+   * Filter, FIQL, sort, include and fields are applied like {@link #getAll(QueryComponent)} but pagination is ignored:
+   * all the matching resources are read from a single database cursor.
+   * The persistence context is cleared every {@link #getExportClearInterval()} resources so it doesn't grow, therefore
+   * this method should be called within a read-only transaction.
+   *
+   * @param qc
+   * @param out where the resources are written. Not closed by this method.
+   * @return number of resources exported
+   * @throws IOException
+   */
+  public long exportAll(QueryComponent qc, OutputStream out) throws IOException {
+    return exportAll(prepareFindAll(qc), out);
+  }
+
+  private long exportAll(FindAllQuery query, OutputStream out) throws IOException {
+    if (jsonApiObjMapper == null) {
+      throw new IllegalStateException("No JSON:API ObjectMapper available");
+    }
+    validateStreamingIncludes(query);
+
+    int clearInterval = getExportClearInterval();
+    ObjectWriter writer = jsonApiObjMapper.writer()
+      .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    CriteriaQuery<E> criteria = query.isFiqlBased() ?
+      dinaService.buildCriteriaQuery(entityClass, query.queryComponents().getFiql(), query.sorts()) :
+      dinaService.buildCriteriaQuery(entityClass, buildWhere(query.queryComponents(), query.sorts(), null, null),
+        (cb, root) -> EntityFilterHelper.getOrders(cb, root, query.sorts(), false));
+
+    long exported = 0;
+    // included (to-one) relationships are fetched with the entities to avoid a query per resource
+    try (Stream<E> entities = dinaService.streamAll(criteria, 0, Integer.MAX_VALUE, query.relationshipsPath(),
+      getExportFetchSize());
+         JsonGenerator generator = jsonApiObjMapper.getFactory().createGenerator(out)
+           .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+      for (Iterator<E> it = entities.iterator(); it.hasNext(); ) {
+        writer.writeValue(generator,
+          jsonApiModelAssistant.createJsonApiModelBuilder(toJsonApiDto(it.next(), query)).build());
+        generator.writeRaw('\n');
+        exported++;
+
+        if (clearInterval > 0 && exported % clearInterval == 0) {
+          dinaService.clear();
+        }
+      }
+    }
+    return exported;
+  }
+
+  /**
+   * Handles the export at the Spring level. See {@link #exportAll(QueryComponent, OutputStream)}.
+   *
+   * @param req used for query string
+   * @param res response where the resources are written
+   * @throws IOException
+   */
+  public void handleExport(HttpServletRequest req, HttpServletResponse res) throws IOException {
+    FindAllQuery query;
+    try {
+      // validate the query before anything is written to the response
+      query = prepareFindAll(QueryStringParser.parse(req != null ? decodeQueryString(req) : null,
+        queryComponentCache));
+      validateStreamingIncludes(query);
+    } catch (IllegalArgumentException iaEx) {
+      res.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+      return;
+    }
+
+    res.setStatus(HttpServletResponse.SC_OK);
+    res.setContentType(NDJSON_VALUE);
+    res.setCharacterEncoding(StandardCharsets.UTF_8.name());
+    exportAll(query, res.getOutputStream());
+  }
+
+  /**
+   * Streamed resources can't include a collection relationship since fetching it would duplicate the rows of
+   * the database cursor.
+   * @param query
+   * @throws IllegalArgumentException if an included relationship goes through a collection
+   */
+  private void validateStreamingIncludes(FindAllQuery query) {
+    for (String relationshipPath : query.relationshipsPath()) {
+      Class<?> dtoClass = resourceClass;
+      for (String relationship : StringUtils.split(relationshipPath, ".")) {
+        DinaMappingRegistry.InternalRelation relation = registry.getInternalRelation(dtoClass, relationship);
+        if (relation == null) {
+          break;
+        }
+        if (relation.isCollection()) {
+          throw new IllegalArgumentException("Collection relationship [" + relationshipPath +
+            "] can't be included when streaming");
+        }
+        dtoClass = relation.getDtoType();
+      }
+    }
+  }
+
+  /**
+   * Override this method to change the number of rows fetched from the database at a time by the export.
+   * @return {@link BaseDAO#DEFAULT_STREAM_FETCH_SIZE} by default
+   */
+  protected int getExportFetchSize() {
+    return BaseDAO.DEFAULT_STREAM_FETCH_SIZE;
+  }
+
+  /**
+   * Override this method to change the number of resources exported between each clear of the persistence context.
+   * A value of 0 (or less) never clears the persistence context.
+   * @return 500 by default
+   */
+  protected int getExportClearInterval() {
+    return DEFAULT_EXPORT_CLEAR_INTERVAL;
+  }
+
+  /**
+   * Set the cache used to parse the query strings. Injected if a {@link QueryComponentCache} bean is available.
+   * @param queryComponentCache
+   */
+  @Autowired(required = false)
+  public void setQueryComponentCache(QueryComponentCache queryComponentCache) {
+    this.queryComponentCache = queryComponentCache;
+  }
+
+  /**
+   * Used to get the {@link ObjectMapper} configured for JSON:API by Spring hateoas. Required by
+   * {@link #handleFindAllStreaming(HttpServletRequest, HttpServletResponse)}.
+   * @param mappingInformation all the hypermedia mapping information available
+   */
+  @Autowired(required = false)
+  public void setHypermediaMappingInformation(Collection<HypermediaMappingInformation> mappingInformation) {
+    mappingInformation.stream()
+      .filter(mi -> mi.getMediaTypes().contains(MediaType.valueOf(MediaTypes.JSON_API_VALUE)))
+      .findFirst()
+      .ifPresent(mi -> jsonApiObjMapper = mi.configureObjectMapper(objMapper.copy()));
+  }
+
+  /**
+   * Validate and resolve everything required to load a page of resources.
+   * @param qc
+   * @return
+   * @throws IllegalArgumentException if the query is invalid
+   */
+  private FindAllQuery prepareFindAll(QueryComponent qc) {
     QueryComponent queryComponents = transformQueryComponent(qc);
-    FilterComponent fc = queryComponents.getFilters();
 
     Set<String> relationshipsPath = EntityFilterHelper.extractRelationships(queryComponents.getIncludes(), resourceClass, registry);
     Set<String> includes = queryComponents.getIncludes() != null ? queryComponents.getIncludes() : Set.of();
-    Map<String, List<String>> fields = queryComponents.getFields();
-    Map<String, List<String>> optionalFields = queryComponents.getOptionalFields();
 
     validateIncludes(includes);
     int pageOffset = toSafePageOffset(queryComponents.getPageOffset());
     int pageLimit = toSafePageLimit(queryComponents.getPageLimit());
 
     boolean isFiqlBased = queryComponents.getFiql() != null;
+    boolean isKeysetBased = queryComponents.getPageAfter() != null;
 
-    List<E> entities = isFiqlBased ?
-      loadEntities(queryComponents.getFiql(), pageOffset, pageLimit, queryComponents.getSorts(), includes, relationshipsPath) :
-      loadEntities(queryComponents, pageOffset, pageLimit, includes, relationshipsPath);
+    if (isFiqlBased && isKeysetBased) {
+      throw new IllegalArgumentException("page[after] can't be used with fiql");
+    }
 
-    List<JsonApiDto<D>> dtos = new ArrayList<>(entities.size());
+    // keyset pagination requires a unique attribute as last sort attribute
+    List<String> sorts = isKeysetBased ? toKeysetSorts(queryComponents.getSorts()) : queryComponents.getSorts();
+    List<String> cursorValues = null;
+    if (isKeysetBased) {
+      cursorValues = PageCursor.FIRST_PAGE.equals(queryComponents.getPageAfter()) ? List.of() :
+        PageCursor.decode(queryComponents.getPageAfter());
+    }
 
-    Set<String> attributes = new HashSet<>(registry.getAttributesPerClass().get(entityClass));
-    attributes.addAll(queryComponents.getIncludes() != null ? queryComponents.getIncludes() : Set.of());
-    addCalculatedAttributes(attributes, optionalFields);
-    addNestedAttributesFromIncludes(attributes, includes);
+    return new FindAllQuery(queryComponents, includes, relationshipsPath,
+      buildAttributeSet(includes, queryComponents.getOptionalFields()), pageOffset, pageLimit,
+      sorts, cursorValues);
+  }
 
-    for (E e : entities) {
-      if (MapUtils.isNotEmpty(optionalFields)) {
-        dinaService.handleOptionalFields(e, optionalFields);
+  private Supplier<Long> buildCountSupplier(FindAllQuery query) {
+    FilterComponent fc = query.queryComponents().getFilters();
+    if (query.isFiqlBased()) {
+      return () -> dinaService.getResourceCount(entityClass, query.queryComponents().getFiql());
+    }
+
+    if (isQueryPlanCacheEnabled()) {
+      return () -> {
+        QueryPlanCache.QueryPlan<Long> plan = queryPlanCache.get(
+          new CountPlanKey(FilterParameterBinder.toShape(fc)), () -> {
+            FilterParameterBinder binder = new FilterParameterBinder();
+            return new QueryPlanCache.QueryPlan<>(dinaService.buildCountCriteriaQuery(entityClass,
+              buildCountWhere(fc, binder)), binder);
+          });
+        return dinaService.getResourceCount(plan.criteria(),
+          plan.bind(FilterParameterBinder.extractValues(fc)));
+      };
+    }
+    return () -> dinaService.getResourceCount(entityClass, buildCountWhere(fc, null));
+  }
+
+  private PredicateSupplier<E> buildCountWhere(FilterComponent fc, FilterParameterBinder binder) {
+    return (criteriaBuilder, root, em) -> {
+      Predicate restriction = binder == null ?
+        SimpleFilterHandlerV2.createPredicate(root, criteriaBuilder, rsqlArgumentParser::parse,
+          em.getMetamodel(), fc) :
+        SimpleFilterHandlerV2.createPredicate(root, criteriaBuilder, rsqlArgumentParser::parse,
+          em.getMetamodel(), fc, binder);
+      return restriction == null ? null : new Predicate[] {restriction};
+    };
+  }
+
+  private Long resolveCount(TotalCountMode countMode, Supplier<Long> countSupplier,
+                            Supplier<Long> parallelCount, FindAllQuery query) {
+    return switch (countMode) {
+      case NONE -> null;
+      case EXACT -> countSupplier.get();
+      case ESTIMATE -> {
+        // estimate can only be used when there is no filter
+        Long estimate = !query.isFiqlBased() && query.queryComponents().getFilters() == null ?
+          dinaService.getEstimatedResourceCount(entityClass) : null;
+        yield estimate != null ? estimate : countSupplier.get();
       }
-      dinaService.augmentEntity(e, includes);
-      dtos.add(jsonApiDtoAssistant.toJsonApiDto(dinaMapper.toDto(e, attributes, null), fields, includes));
+      case PARALLEL -> parallelCount.get();
+    };
+  }
+
+  /**
+   * Build the list of entity attributes to select when the sparse fieldset projection can be used:
+   * sparse fieldset requested for the resource type, no include, no optional fields and only attributes
+   * that are persistent fields of the entity (sort attributes included).
+   * The id, uuid and group (if available) are always selected.
+   *
+   * @param query
+   * @return the attributes to select or null if the projection can't be used
+   */
+  private List<String> buildProjection(FindAllQuery query) {
+    QueryComponent qc = query.queryComponents();
+    List<String> fields = qc.getFields() != null ? qc.getFields().get(jsonApiType) : null;
+    if (!isSparseFieldsetProjectionEnabled() || fields == null || fields.isEmpty() || query.isFiqlBased() ||
+      !query.includes().isEmpty() || MapUtils.isNotEmpty(qc.getOptionalFields())) {
+      return null;
+    }
+
+    Set<String> entityAttributes = registry.getAttributesPerClass().get(entityClass);
+    Set<String> projection = new LinkedHashSet<>(List.of(getKeysetTieBreaker(), PROJECTION_UUID_ATTRIBUTE));
+    if (FieldUtils.getField(entityClass, PROJECTION_GROUP_ATTRIBUTE, true) != null) {
+      projection.add(PROJECTION_GROUP_ATTRIBUTE);
+    }
+    for (String field : fields) {
+      if (!entityAttributes.contains(field)) {
+        return null;
+      }
+      projection.add(field);
+    }
+    // sort attributes are required to build the page cursor
+    if (query.sorts() != null) {
+      for (String sort : query.sorts()) {
+        projection.add(StringUtils.removeStart(sort, EntityFilterHelper.REVERSE_ORDER_PREFIX));
+      }
+    }
+
+    for (String attribute : projection) {
+      Field field = FieldUtils.getField(entityClass, attribute, true);
+      if (field == null || field.isAnnotationPresent(Transient.class)) {
+        return null;
+      }
+    }
+    return List.copyOf(projection);
+  }
+
+  /**
+   * Load the selected attributes and set them on new (not managed) instances of the entity.
+   * @param query
+   * @param projection attributes to select
+   * @return entities only containing the projection attributes
+   */
+  private List<E> loadProjectedEntities(FindAllQuery query, List<String> projection) {
+    List<Map<String, Object>> rows = dinaService.findAllAttributes(entityClass, projection,
+      buildWhere(query.queryComponents(), query.sorts(), query.cursorValues(), null),
+      (cb, root) -> EntityFilterHelper.getOrders(cb, root, query.sorts(), false),
+      query.isKeysetBased() ? 0 : query.pageOffset(), query.pageLimit());
+
+    List<E> entities = new ArrayList<>(rows.size());
+    try {
+      for (Map<String, Object> row : rows) {
+        E entity = BeanUtils.instantiateClass(entityClass);
+        for (Map.Entry<String, Object> value : row.entrySet()) {
+          FieldUtils.writeField(entity, value.getKey(), value.getValue(), true);
+        }
+        entities.add(entity);
+      }
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Can't set projection attributes on " + entityClass.getSimpleName(), e);
+    }
+    return entities;
+  }
+
+  private JsonApiDto<D> toProjectedJsonApiDto(E e, List<String> projection, FindAllQuery query) {
+    return jsonApiDtoAssistant.toJsonApiDto(dinaMapper.toDto(e, Set.copyOf(projection), null),
+      query.queryComponents().getFields(), query.includes());
+  }
+
+  private JsonApiDto<D> toJsonApiDto(E e, FindAllQuery query) {
+    Map<String, List<String>> optionalFields = query.queryComponents().getOptionalFields();
+    if (MapUtils.isNotEmpty(optionalFields)) {
+      dinaService.handleOptionalFields(e, optionalFields);
+    }
+    dinaService.augmentEntity(e, query.includes());
+    return jsonApiDtoAssistant.toJsonApiDto(dinaMapper.toDto(e, query.attributes(), null),
+      query.queryComponents().getFields(), query.includes());
+  }
+
+  /**
+   * Override this method to change how the total resource count is computed by getAll.
+   * @return {@link TotalCountMode#EXACT} by default
+   */
+  protected TotalCountMode getTotalCountMode() {
+    return TotalCountMode.EXACT;
+  }
+
+  /**
+   * Override this method to enable the sparse fieldset projection in getAll.
+   * When a sparse fieldset (fields[type]) is requested without include or optional fields, only the requested
+   * attributes (plus id, uuid, group and the sort attributes) are selected and the DTO is mapped from them
+   * instead of loading the full entities.
+   * Should only be enabled if the mapper and augmentEntity don't need other attributes of the entity since
+   * augmentEntity is not called on the projected entities.
+   * @return false by default
+   */
+  protected boolean isSparseFieldsetProjectionEnabled() {
+    return false;
+  }
+
+  /**
+   * Override this method to enable the reuse of the criteria built by getAll for filters of the same shape.
+   * The cached criteria are shared between requests, only the parameter values are bound per use.
+   * @return false by default
+   */
+  protected boolean isQueryPlanCacheEnabled() {
+    return false;
+  }
+
+  protected QueryPlanCache getQueryPlanCache() {
+    return queryPlanCache;
+  }
+
+  /**
+   * Override this method to change how long the page waits for the count in {@link TotalCountMode#PARALLEL}.
+   * @return 10 seconds by default
+   */
+  protected Duration getParallelCountTimeout() {
+    return DEFAULT_PARALLEL_COUNT_TIMEOUT;
+  }
+
+  /**
+   * Add the tie-breaker (the database id) to the sort attributes so the order is always deterministic.
+   * Required by keyset pagination.
+   * @param sorts
+   * @return
+   */
+  private List<String> toKeysetSorts(List<String> sorts) {
+    String tieBreaker = getKeysetTieBreaker();
+    if (sorts == null || sorts.isEmpty()) {
+      return List.of(tieBreaker);
     }
+    if (sorts.contains(tieBreaker) ||
+      sorts.contains(EntityFilterHelper.REVERSE_ORDER_PREFIX + tieBreaker)) {
+      return sorts;
+    }
+    List<String> keysetSorts = new ArrayList<>(sorts);
+    keysetSorts.add(tieBreaker);
+    return keysetSorts;
+  }
 
-    Long resourceCount = isFiqlBased ?
-      dinaService.getResourceCount(entityClass, queryComponents.getFiql()) :
-      dinaService.getResourceCount(entityClass,
-        (criteriaBuilder, root, em) -> {
-          Predicate restriction =
-            SimpleFilterHandlerV2.createPredicate(root, criteriaBuilder, rsqlArgumentParser::parse,
-              em.getMetamodel(), fc);
-          return restriction == null ? null : new Predicate[] {restriction};
-        });
+  private String getKeysetTieBreaker() {
+    if (keysetTieBreaker == null) {
+      keysetTieBreaker = dinaService.getDatabaseIdFieldName(entityClass);
+    }
+    return keysetTieBreaker;
+  }
 
-    return new PagedResource<>(pageOffset, pageLimit, resourceCount.intValue(), dtos);
+  /**
+   * Build the cursor pointing after the provided entity.
+   * @param entity last entity of the page
+   * @param sorts sort attributes including the tie-breaker
+   * @return the cursor or null if the values of the sort attributes can't be read
+   */
+  private static String toPageCursor(Object entity, List<String> sorts) {
+    List<String> values = new ArrayList<>(sorts.size());
+    try {
+      for (String sort : sorts) {
+        Object value;
+        try {
+          value = PropertyUtils.getProperty(entity,
+            StringUtils.removeStart(sort, EntityFilterHelper.REVERSE_ORDER_PREFIX));
+        } catch (NestedNullException e) {
+          // null relationship on a nested sort attribute
+          value = null;
+        }
+        if (value == null) {
+          values.add(null);
+        } else {
+          values.add(value instanceof Enum<?> enumValue ? enumValue.name() : value.toString());
+        }
+      }
+    } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
+      log.debug("Can't generate page cursor", e);
+      return null;
+    }
+    return PageCursor.encode(values);
   }
 
   /**
@@ -489,28 +1140,96 @@ public class DinaRepositoryV2<D extends JsonApiResource, E extends DinaEntity>
   /**
    * Load entities using Criteria Builder
    * @param queryComponents
+   * @param sorts sort attributes to use (including the tie-breaker)
+   * @param cursorValues values decoded from the page cursor (empty on the first page) or null if keyset
+   *                     pagination is not used
    * @param pageOffset
    * @param pageLimit
    * @param includes
    * @param relationshipsPath
    * @return
    */
-  private List<E> loadEntities(QueryComponent queryComponents,
+  private List<E> loadEntities(QueryComponent queryComponents, List<String> sorts,
+                               List<String> cursorValues,
                                int pageOffset, int pageLimit,
                                Set<String> includes, Set<String> relationshipsPath) {
-    FilterComponent fc = queryComponents.getFilters();
     return dinaService.findAll(
       entityClass,
-      (criteriaBuilder, root, em) -> {
-        EntityFilterHelper.leftJoinSortRelations(root, queryComponents.getSorts(), resourceClass, registry);
-
-        Predicate restriction = SimpleFilterHandlerV2.createPredicate(root, criteriaBuilder, rsqlArgumentParser::parse, em.getMetamodel(), fc);
-        return restriction == null ? null : new Predicate[]{restriction};
-      },
-      (cb, root) -> EntityFilterHelper.getOrders(cb, root, queryComponents.getSorts(), false),
+      buildWhere(queryComponents, sorts, cursorValues, null),
+      (cb, root) -> EntityFilterHelper.getOrders(cb, root, sorts, false),
       pageOffset, pageLimit, includes, relationshipsPath);
   }
 
+  /**
+   * Load the entities of the page using Criteria Builder. If enabled, the criteria is taken from the
+   * {@link QueryPlanCache} and only the values are bound.
+   * @param query
+   * @return
+   */
+  private List<E> loadEntities(FindAllQuery query) {
+    int pageOffset = query.isKeysetBased() ? 0 : query.pageOffset();
+    if (!isQueryPlanCacheEnabled()) {
+      return loadEntities(query.queryComponents(), query.sorts(), query.cursorValues(),
+        pageOffset, query.pageLimit(), query.includes(), query.relationshipsPath());
+    }
+
+    FilterComponent fc = query.queryComponents().getFilters();
+    SelectPlanKey key = new SelectPlanKey(FilterParameterBinder.toShape(fc), query.sorts(),
+      query.queryComponents().getSorts(), query.hasCursorValues(), query.nullCursorValues());
+
+    QueryPlanCache.QueryPlan<E> plan = queryPlanCache.get(key, () -> {
+      FilterParameterBinder binder = new FilterParameterBinder();
+      return new QueryPlanCache.QueryPlan<>(dinaService.buildCriteriaQuery(entityClass,
+        buildWhere(query.queryComponents(), query.sorts(), query.cursorValues(), binder),
+        (cb, root) -> EntityFilterHelper.getOrders(cb, root, query.sorts(), false)), binder);
+    });
+
+    // values are bound in the same order as the parameters were created: filters then cursor
+    List<String> values = FilterParameterBinder.extractValues(fc);
+    if (query.isKeysetBased()) {
+      values.addAll(query.cursorValues());
+    }
+    return dinaService.findAll(plan.criteria(), plan.bind(values), pageOffset, query.pageLimit(),
+      query.relationshipsPath());
+  }
+
+  /**
+   * Same as {@link #loadEntities(QueryComponent, List, List, int, int, Set, Set)} (or the FIQL version)
+   * but returns a Stream.
+   * @param query
+   * @return
+   */
+  private Stream<E> streamEntities(FindAllQuery query) {
+    CriteriaQuery<E> criteria = query.isFiqlBased() ?
+      dinaService.buildCriteriaQuery(entityClass, query.queryComponents().getFiql(), query.sorts()) :
+      dinaService.buildCriteriaQuery(entityClass,
+        buildWhere(query.queryComponents(), query.sorts(), query.cursorValues(), null),
+        (cb, root) -> EntityFilterHelper.getOrders(cb, root, query.sorts(), false));
+    return dinaService.streamAll(criteria, query.isKeysetBased() ? 0 : query.pageOffset(), query.pageLimit(),
+      query.relationshipsPath(), BaseDAO.DEFAULT_STREAM_FETCH_SIZE);
+  }
+
+  /**
+   * @param binder if provided, values are replaced by parameters registered in the binder
+   */
+  private PredicateSupplier<E> buildWhere(QueryComponent queryComponents, List<String> sorts,
+                                          List<String> cursorValues, FilterParameterBinder binder) {
+    FilterComponent fc = queryComponents.getFilters();
+    return (criteriaBuilder, root, em) -> {
+      EntityFilterHelper.leftJoinSortRelations(root, queryComponents.getSorts(), resourceClass, registry);
+
+      Predicate restriction = binder == null ?
+        SimpleFilterHandlerV2.createPredicate(root, criteriaBuilder, rsqlArgumentParser::parse, em.getMetamodel(), fc) :
+        SimpleFilterHandlerV2.createPredicate(root, criteriaBuilder, rsqlArgumentParser::parse, em.getMetamodel(), fc, binder);
+      if (cursorValues != null && !cursorValues.isEmpty()) {
+        Predicate seek = EntityFilterHelper.getSeekPredicate(criteriaBuilder, root, sorts, cursorValues,
+          false, rsqlArgumentParser::parse, binder);
+        restriction = restriction == null ? seek : criteriaBuilder.and(restriction, seek);
+      }
+      return restriction == null ? null : new Predicate[]{restriction};
+    };
+  }
+
   /**
    * Load entities using FIQL
    * @param fiql
@@ -568,6 +1287,31 @@ public class DinaRepositoryV2<D extends JsonApiResource, E extends DinaEntity>
     }
   }
 
+  /**
+   * Build the set of attributes to map from the entity to the dto.
+   * @param includes list of relationship included (could be internal or external)
+   * @param optionalFields optional fields requested (by type)
+   * @return immutable set of attributes (cached per includes and calculated attributes requested)
+   */
+  private Set<String> buildAttributeSet(Set<String> includes, Map<String, List<String>> optionalFields) {
+    AttributeSetKey key = new AttributeSetKey(Set.copyOf(includes), getRequestedCalculatedAttributes(optionalFields));
+
+    Set<String> attributes = attributeSetCache.get(key);
+    if (attributes == null) {
+      Set<String> newAttributes = new HashSet<>(registry.getAttributesPerClass().get(entityClass));
+      newAttributes.addAll(key.includes());
+      newAttributes.addAll(key.calculatedAttributes());
+      addNestedAttributesFromIncludes(newAttributes, key.includes());
+      attributes = Set.copyOf(newAttributes);
+
+      // the number of combinations is limited by the registry but keep a safety net
+      if (attributeSetCache.size() < MAX_ATTRIBUTE_SET_CACHE_SIZE) {
+        attributeSetCache.putIfAbsent(key, attributes);
+      }
+    }
+    return attributes;
+  }
+
   /**
    * From a list of included relationships, add the nested attributes
    * using the name of the relationship as prefix.
@@ -592,23 +1336,47 @@ public class DinaRepositoryV2<D extends JsonApiResource, E extends DinaEntity>
 
   /**
    * Calculated attributes are not added by default. They need to be requested.
-   * @param attributes
    * @param optionalFields
+   * @return the known calculated attributes requested or an empty set
    */
-  private void addCalculatedAttributes(Set<String> attributes,
-                                       Map<String, List<String>> optionalFields) {
+  private Set<String> getRequestedCalculatedAttributes(Map<String, List<String>> optionalFields) {
     if (MapUtils.isEmpty(optionalFields) || !optionalFields.containsKey(jsonApiType)) {
-      return;
+      return Set.of();
     }
 
     // for now we are only accepting our own jsonApiType
+    Set<String> calculatedAttributes = new HashSet<>();
     for (String optField : optionalFields.getOrDefault(jsonApiType, List.of())) {
       if (registry.getCalculatedAttributesForClass(resourceClass).contains(optField)) {
-        attributes.add(optField);
+        calculatedAttributes.add(optField);
       } else {
         log.debug("Unknown calculated field {}", optField);
       }
     }
+    return calculatedAttributes;
+  }
+
+  /**
+   * Immutable attributes of the resource class for the provided operation.
+   * @param immutableOn
+   * @return immutable set of attributes
+   */
+  private Set<String> getImmutableAttributes(JsonApiImmutable.ImmutableOn immutableOn) {
+    return immutableAttributesCache.computeIfAbsent(immutableOn,
+      on -> Set.copyOf(registry.getImmutableAttributesForClass(resourceClass, on)));
+  }
+
+  /**
+   * Attributes of the resource class that can be set on create (all attributes minus the immutable ones).
+   * @return immutable set of attributes
+   */
+  private Set<String> getCreatableAttributes() {
+    if (creatableAttributes == null) {
+      Set<String> attributes = new HashSet<>(registry.getAttributesPerClass().get(resourceClass));
+      attributes.removeAll(getImmutableAttributes(JsonApiImmutable.ImmutableOn.CREATE));
+      creatableAttributes = Set.copyOf(attributes);
+    }
+    return creatableAttributes;
   }
 
   public static int toSafePageOffset(Integer pageOffset) {
@@ -638,6 +1406,196 @@ public class DinaRepositoryV2<D extends JsonApiResource, E extends DinaEntity>
    */
   public JsonApiDto<D> create(JsonApiDocument docToCreate, Consumer<D> dtoCustomizer) {
 
+    E created = createEntity(docToCreate, dtoCustomizer);
+
+    // build the dto from the managed entity, refreshed if some values are set by the database
+    JsonApiDto<D> reloadedDto = toPostWriteJsonApiDto(created);
+
+    if (auditService != null) {
+      auditService.audit(reloadedDto.getDto());
+    }
+
+    return reloadedDto;
+  }
+
+  /**
+   * Create the entity of a new resource and flush it.
+   * @param docToCreate
+   * @param dtoCustomizer can be null
+   * @return the created (managed) entity
+   */
+  private E createEntity(JsonApiDocument docToCreate, Consumer<D> dtoCustomizer) {
+    E created = dinaService.create(toEntityForCreate(docToCreate, dtoCustomizer));
+    dinaService.flush();
+    return created;
+  }
+
+  /**
+   * Create new resources in a batch.
+   * All entities are created in the persistence context first, then they are flushed, detached and reloaded
+   * together using a single query (so database generated values are returned). This allows Hibernate to use
+   * JDBC batching (see hibernate.jdbc.batch_size) when the identifier generation strategy supports it.
+   * @param docsToCreate
+   * @param dtoCustomizer used to customize the dto before being transformed to entity.
+   *                      Example, setting the authenticated user as createdBy. Can be null.
+   * @return freshly reloaded dtos of the created resources in the same order as docsToCreate
+   */
+  public List<JsonApiDto<D>> createAll(List<JsonApiDocument> docsToCreate, Consumer<D> dtoCustomizer) {
+
+    List<E> createdEntities = new ArrayList<>(docsToCreate.size());
+    for (JsonApiDocument docToCreate : docsToCreate) {
+      createdEntities.add(dinaService.create(toEntityForCreate(docToCreate, dtoCustomizer)));
+    }
+    dinaService.flush();
+
+    // detach the created entities, otherwise the reload returns the managed instances without the
+    // values generated by the database
+    List<UUID> createdUUIDs = new ArrayList<>(createdEntities.size());
+    for (E created : createdEntities) {
+      createdUUIDs.add(created.getUuid());
+      dinaService.detach(created);
+    }
+
+    // reload dtos to make sure calculated values and server generated values are returned
+    List<JsonApiDto<D>> reloadedDtos = loadAll(createdUUIDs);
+
+    if (auditService != null) {
+      auditService.auditAll(reloadedDtos.stream().map(JsonApiDto::getDto).toList());
+    }
+
+    return reloadedDtos;
+  }
+
+  /**
+   * Reload a list of entities in a single query and build {@link JsonApiDto} for each of them.
+   * Used after create or update operations where existence and authorization were already checked.
+   * Since it's using a query, pending changes will be flushed by the persistence context.
+   * @param identifiers
+   * @return list of {@link JsonApiDto} in the same order as the provided identifiers
+   */
+  private List<JsonApiDto<D>> loadAll(List<UUID> identifiers) {
+    Map<UUID, E> entitiesByUuid = findAllByUuid(identifiers, Set.of());
+
+    Set<String> attributes = buildAttributeSet(Set.of(), null);
+    List<JsonApiDto<D>> dtos = new ArrayList<>(identifiers.size());
+    for (UUID identifier : identifiers) {
+      E entity = entitiesByUuid.get(identifier);
+      if (entity == null) {
+        throw new IllegalStateException("Can't reload resource " + identifier);
+      }
+      dtos.add(toJsonApiDto(entity, attributes));
+    }
+    return dtos;
+  }
+
+  /**
+   * Build the {@link JsonApiDto} returned after a write operation from the managed entity instead of
+   * reloading it. The changes must already be flushed.
+   * The entity is refreshed first if {@link #isRefreshRequiredAfterWrite()} says so, otherwise the values
+   * set by the database would be missing.
+   * @param entity managed entity
+   * @return
+   */
+  private JsonApiDto<D> toPostWriteJsonApiDto(E entity) {
+    if (isRefreshRequiredAfterWrite()) {
+      dinaService.refresh(entity);
+    }
+    return toJsonApiDto(entity, buildAttributeSet(Set.of(), null));
+  }
+
+  /**
+   * Build a {@link JsonApiDto} (without includes and sparse fields) for an entity that is already loaded.
+   * @param entity
+   * @param attributes attributes to map
+   * @return
+   */
+  private JsonApiDto<D> toJsonApiDto(E entity, Set<String> attributes) {
+    authorizationService.authorizeRead(entity);
+    dinaService.augmentEntity(entity, Set.of());
+    return jsonApiDtoAssistant.toJsonApiDto(dinaMapper.toDto(entity, attributes, null), null, Set.of());
+  }
+
+  /**
+   * When true, the entity is refreshed from the database before building the dto returned by create and update.
+   * By default, a refresh is required if the entity has values set by the database
+   * (see {@link DinaService#hasDatabaseGeneratedValues(Class)}) or if the resource has calculated attributes.
+   * Override this method if the entity relies on values set by the database that can't be detected
+   * (e.g. triggers).
+   * @return
+   */
+  protected boolean isRefreshRequiredAfterWrite() {
+    if (refreshRequiredAfterWrite == null) {
+      refreshRequiredAfterWrite = !registry.getCalculatedAttributesForClass(resourceClass).isEmpty() ||
+        dinaService.hasDatabaseGeneratedValues(entityClass);
+    }
+    return refreshRequiredAfterWrite;
+  }
+  /**
+   * Load all the entities matching the provided identifiers using a single query.
+   * @param identifiers
+   * @param relationships relationships to load or an empty set, not null.
+   * @return entities found by uuid. Identifiers that can't be found are absent from the map.
+   */
+  private Map<UUID, E> findAllByUuid(List<UUID> identifiers, Set<String> relationships) {
+    Map<UUID, E> entitiesByUuid = new HashMap<>(identifiers.size());
+    for (E entity : dinaService.findAllByNaturalIds(identifiers, entityClass, relationships)) {
+      entitiesByUuid.put(entity.getUuid(), entity);
+    }
+    return entitiesByUuid;
+  }
+
+  /**
+   * Make sure all the identifiers are matching an entity.
+   * All identifiers are checked before throwing so the exception can report all the problematic resources.
+   * @param identifiers
+   * @param entitiesByUuid
+   * @throws ResourcesNotFoundException if at least one resource can't be found
+   * @throws ResourcesGoneException if at least one resource is deleted (and none are not found)
+   */
+  private void checkAllFound(List<UUID> identifiers, Map<UUID, E> entitiesByUuid)
+      throws ResourcesNotFoundException, ResourcesGoneException {
+
+    // initialize to null since it won't be used most of the time
+    List<String> resourcesNotFound = null;
+    Map<String, String> resourcesGone = null;
+
+    for (UUID identifier : identifiers) {
+      try {
+        // Throw not found or gone exceptions if required.
+        handleEntityAuditExceptions(entitiesByUuid.get(identifier), identifier);
+      } catch (ResourceNotFoundException exNotFound) {
+        if (resourcesNotFound == null) {
+          resourcesNotFound = new ArrayList<>();
+        }
+        resourcesNotFound.add(exNotFound.getIdentifier());
+      } catch (ResourceGoneException exGone) {
+        if (resourcesGone == null) {
+          resourcesGone = new HashMap<>();
+        }
+        resourcesGone.put(exGone.getIdentifier(), exGone.getLink());
+      }
+    }
+
+    // errors handling
+    if (resourcesNotFound != null) {
+      throw ResourcesNotFoundException.create(jsonApiType, resourcesNotFound);
+    }
+
+    if (resourcesGone != null) {
+      throw ResourcesGoneException.create(jsonApiType, resourcesGone);
+    }
+  }
+
+
+  /**
+   * Build the entity to create from the provided document, apply the relationships and
+   * check the authorization.
+   * @param docToCreate
+   * @param dtoCustomizer can be null
+   * @return the entity ready to be created
+   */
+  private E toEntityForCreate(JsonApiDocument docToCreate, Consumer<D> dtoCustomizer) {
+
     // make sure data is safe to manipulate
     checkSubmittedData(docToCreate.getAttributes());
 
@@ -647,38 +1605,41 @@ public class DinaRepositoryV2<D extends JsonApiResource, E extends DinaEntity>
     }
 
     // apply DTO on entity using the keys from docToCreate but remove all immutable fields (if any)
-    Set<String> attributesToConsider = new HashSet<>(registry.getAttributesPerClass().get(resourceClass));
-    attributesToConsider.removeAll(registry.getImmutableAttributesForClass(resourceClass, JsonApiImmutable.ImmutableOn.CREATE));
-
-    E entity = dinaMapper.toEntity(dto, attributesToConsider, null);
+    E entity = dinaMapper.toEntity(dto, getCreatableAttributes(), null);
 
     updateRelationships(entity, docToCreate.getRelationships());
 
     authorizationService.authorizeCreate(entity);
-    E created = dinaService.create(entity);
+    return entity;
+  }
 
-    // reload dto to make sure calculated values and server generated values are returned
-    JsonApiDto<D> reloadedDto;
-    try {
-      reloadedDto = getOne(created.getUuid(), null);
-    } catch (ResourceNotFoundException | ResourceGoneException e) {
-      throw new RuntimeException(e);
-    }
+  /**
+   * Update the resource defined by the id in {@link JsonApiDocument} with the provided
+   * attributes and/or relationships
+   * @param patchDto
+   * @return freshly reloaded dto of the updated resource
+   */
+  public JsonApiDto<D> update(JsonApiDocument patchDto)
+      throws ResourceNotFoundException, ResourceGoneException {
+
+    E updated = updateEntity(patchDto);
+
+    // build the dto from the managed entity, refreshed if some values are set by the database
+    JsonApiDto<D> reloadedDto = toPostWriteJsonApiDto(updated);
 
     if (auditService != null) {
       auditService.audit(reloadedDto.getDto());
     }
-
     return reloadedDto;
   }
 
   /**
-   * Update the resource defined by the id in {@link JsonApiDocument} with the provided
-   * attributes and/or relationships
+   * Apply the attributes and relationships of the {@link JsonApiDocument} on the entity and update it.
+   * The changes are flushed by the service.
    * @param patchDto
-   * @return freshly reloaded dto of the updated resource
+   * @return the updated (managed) entity
    */
-  public JsonApiDto<D> update(JsonApiDocument patchDto)
+  private E updateEntity(JsonApiDocument patchDto)
       throws ResourceNotFoundException, ResourceGoneException {
 
     // make sure data is safe to manipulate (if data is provided)
@@ -704,22 +1665,65 @@ public class DinaRepositoryV2<D extends JsonApiResource, E extends DinaEntity>
 
       // apply DTO on entity using the keys from patchDto but remove all immutable fields (if any)
       Set<String> attributesToPatch = new HashSet<>(patchDto.getData().getAttributesName());
-      attributesToPatch.removeAll(registry.getImmutableAttributesForClass(resourceClass,
-        JsonApiImmutable.ImmutableOn.UPDATE));
+      attributesToPatch.removeAll(getImmutableAttributes(JsonApiImmutable.ImmutableOn.UPDATE));
       dinaMapper.patchEntity(entity, dto, attributesToPatch, null);
     }
 
     updateRelationships(entity, patchDto.getRelationships());
 
-    dinaService.update(entity);
+    return dinaService.update(entity);
+  }
 
-    // reload dto to make sure calculated values and server generated values are returned
-    JsonApiDto<D> reloadedDto = getOne(entity.getUuid(), null);
+  /**
+   * Update all the resources defined by the ids in the {@link JsonApiDocument}s.
+   * All resources are loaded using a single query, patched in memory and flushed once before being
+   * reloaded (in a single query).
+   * @param patchDtos
+   * @return freshly reloaded dtos of the updated resources in the same order as patchDtos
+   * @throws ResourcesNotFoundException if at least one resource can't be found
+   * @throws ResourcesGoneException if at least one resource is deleted
+   */
+  public List<JsonApiDto<D>> updateAll(List<JsonApiDocument> patchDtos)
+      throws ResourcesNotFoundException, ResourcesGoneException {
+
+    // make sure data is safe to manipulate (if data is provided)
+    for (JsonApiDocument patchDto : patchDtos) {
+      if (patchDto.getAttributes() != null) {
+        checkSubmittedData(patchDto.getAttributes());
+      }
+    }
+
+    List<UUID> identifiers = patchDtos.stream().map(JsonApiDocument::getId).toList();
+    Map<UUID, E> entitiesByUuid = findAllByUuid(identifiers, Set.of());
+    checkAllFound(identifiers, entitiesByUuid);
+
+    Set<String> immutableAttributes = getImmutableAttributes(JsonApiImmutable.ImmutableOn.UPDATE);
+
+    List<E> entities = new ArrayList<>(patchDtos.size());
+    for (JsonApiDocument patchDto : patchDtos) {
+      E entity = entitiesByUuid.get(patchDto.getId());
+      authorizationService.authorizeUpdate(entity);
+
+      if (patchDto.getAttributes() != null) {
+        D dto = objMapper.convertValue(patchDto.getAttributes(), resourceClass);
+        Set<String> attributesToPatch = new HashSet<>(patchDto.getData().getAttributesName());
+        attributesToPatch.removeAll(immutableAttributes);
+        dinaMapper.patchEntity(entity, dto, attributesToPatch, null);
+      }
+
+      updateRelationships(entity, patchDto.getRelationships());
+      entities.add(entity);
+    }
+
+    dinaService.updateAll(entities);
+
+    // reload dtos to make sure calculated values and server generated values are returned
+    List<JsonApiDto<D>> reloadedDtos = loadAll(identifiers);
 
     if (auditService != null) {
-      auditService.audit(reloadedDto.getDto());
+      auditService.auditAll(reloadedDtos.stream().map(JsonApiDto::getDto).toList());
     }
-    return reloadedDto;
+    return reloadedDtos;
   }
 
   /**
@@ -764,19 +1768,29 @@ public class DinaRepositoryV2<D extends JsonApiResource, E extends DinaEntity>
     if (!relationshipObj.isNull()) {
       // to-many
       if (relationshipObj.isCollection()) {
-        List<Object> relationshipsReferences = new ArrayList<>();
+        List<UUID> naturalIds = new ArrayList<>();
         for (Object el : relationshipObj.getDataAsCollection()) {
           var resourceIdentifier = toResourceIdentifier(el);
           if (resourceIdentifier != null) {
-            relationshipsReferences.add(
-              dinaService.getReferenceByNaturalId(relation.getEntityType(),
-                resourceIdentifier.getId()));
+            naturalIds.add(resourceIdentifier.getId());
           } else {
             log.warn("Can't convert to ResourceIdentifier list element, ignoring");
             return;
           }
         }
-        relationshipsReference = relationshipsReferences;
+        // load all the elements at once instead of resolving each natural id
+        List<?> relatedEntities = dinaService.findAllByNaturalIdsOrdered(relation.getEntityType(), naturalIds);
+        List<String> missingIds = new ArrayList<>();
+        for (int i = 0; i < relatedEntities.size(); i++) {
+          if (relatedEntities.get(i) == null) {
+            missingIds.add(naturalIds.get(i).toString());
+          }
+        }
+        if (!missingIds.isEmpty()) {
+          throw new IllegalArgumentException("Relationship [" + relationshipName + "] references unknown " +
+            relation.getEntityType().getSimpleName() + " " + String.join(",", missingIds));
+        }
+        relationshipsReference = new ArrayList<>(relatedEntities);
       } else { // to-one
         var resourceIdentifier = toResourceIdentifier(relationshipObj.getData());
         if (resourceIdentifier != null) {
@@ -845,6 +1859,38 @@ public class DinaRepositoryV2<D extends JsonApiResource, E extends DinaEntity>
     dinaService.delete(entity);
   }
 
+  /**
+   * Delete all the resources identified by the provided identifiers.
+   * All resources are loaded using a single query and the audit dtos are built from the loaded entities.
+   *
+   * @param identifiers
+   * @throws ResourcesNotFoundException if at least one resource can't be found
+   * @throws ResourcesGoneException if at least one resource is already deleted
+   */
+  public void deleteAll(List<UUID> identifiers) throws ResourcesNotFoundException, ResourcesGoneException {
+    Map<UUID, E> entitiesByUuid = findAllByUuid(identifiers, Set.of());
+    checkAllFound(identifiers, entitiesByUuid);
+
+    List<E> entities = identifiers.stream().distinct().map(entitiesByUuid::get).toList();
+    for (E entity : entities) {
+      authorizationService.authorizeDelete(entity);
+    }
+
+    if (auditService != null) {
+      Set<String> attributes = buildAttributeSet(Set.of(), null);
+      List<D> dtos = new ArrayList<>(entities.size());
+      for (E entity : entities) {
+        dinaService.augmentEntity(entity, Set.of());
+        dtos.add(dinaMapper.toDto(entity, attributes, null));
+      }
+      auditService.auditDeleteEvents(dtos);
+    }
+
+    for (E entity : entities) {
+      dinaService.delete(entity);
+    }
+  }
+
   /**
    *
    * @param attributes without relationships
@@ -889,15 +1935,100 @@ public class DinaRepositoryV2<D extends JsonApiResource, E extends DinaEntity>
     }
   }
 
+  /**
+   * How the total resource count is computed by getAll.
+   */
+  public enum TotalCountMode {
+    /**
+     * Exact count using the same predicates as the page query.
+     */
+    EXACT,
+    /**
+     * No count, totalResourceCount is not included in the response.
+     */
+    NONE,
+    /**
+     * Estimate based on the database statistics when no filter is used. Fallback to EXACT otherwise.
+     */
+    ESTIMATE,
+    /**
+     * Exact count run in parallel with the page query on a separate connection.
+     * Since it runs outside the current transaction, the count can be served by a different read replica than
+     * the page. Within a read-write transaction, the count runs in that transaction before the page instead.
+     * The count is dropped (not included in the response) if it takes longer than the parallel count timeout.
+     */
+    PARALLEL
+  }
+
+  /**
+   * Key of the attribute set cache.
+   */
+  private record AttributeSetKey(Set<String> includes, Set<String> calculatedAttributes) {
+  }
+
+  /**
+   * Key of a findAll plan in the {@link QueryPlanCache}.
+   * The original sorts are included since they determine the joins and the positions of the null cursor
+   * values since they are not bound as parameters.
+   */
+  private record SelectPlanKey(Object filterShape, List<String> sorts, List<String> requestedSorts,
+                               boolean seek, List<Boolean> nullCursorValues) {
+  }
+
+  /**
+   * Key of a count plan in the {@link QueryPlanCache}.
+   */
+  private record CountPlanKey(Object filterShape) {
+  }
+
+  /**
+   * Resolved elements of a findAll query.
+   */
+  private record FindAllQuery(QueryComponent queryComponents, Set<String> includes,
+                              Set<String> relationshipsPath, Set<String> attributes,
+                              int pageOffset, int pageLimit, List<String> sorts,
+                              List<String> cursorValues) {
+
+    boolean isFiqlBased() {
+      return queryComponents.getFiql() != null;
+    }
+
+    boolean isKeysetBased() {
+      return cursorValues != null;
+    }
+
+    boolean hasCursorValues() {
+      return cursorValues != null && !cursorValues.isEmpty();
+    }
+
+    List<Boolean> nullCursorValues() {
+      return cursorValues == null ? List.of() : cursorValues.stream().map(Objects::isNull).toList();
+    }
+  }
+
   /**
    *
    * @param pageOffset
    * @param pageLimit
-   * @param totalCount
+   * @param totalCount total resource count, 0 if not computed (see totalCountComputed)
    * @param resourceList
+   * @param nextPageCursor cursor to use with page[after] to get the next page or null if page[after] was not used
+   *                       or there is no next page
+   * @param totalCountComputed false if the total count was not computed (see {@link TotalCountMode})
    * @param <D>
    */
   public record PagedResource<D>(int pageOffset, int pageLimit, int totalCount,
-                                 List<D> resourceList) {
+                                 List<D> resourceList, String nextPageCursor, boolean totalCountComputed) {
+
+    public PagedResource(int pageOffset, int pageLimit, int totalCount, List<D> resourceList) {
+      this(pageOffset, pageLimit, totalCount, resourceList, null, true);
+    }
+
+    /**
+     * @return the total count or null if it was not computed
+     */
+    public Integer nullableTotalCount() {
+      return totalCountComputed ? totalCount : null;
+    }
   }
 }
@@ -241,7 +241,8 @@ public class JsonApiModelAssistant <D extends JsonApiResource> {
    */
   public JsonApiModelBuilder createJsonApiModelBuilder(
     DinaRepositoryV2.PagedResource<JsonApiDto<D>> jsonApiDtos) {
-    return createJsonApiModelBuilder(jsonApiDtos.resourceList(), jsonApiDtos.totalCount());
+    return createJsonApiModelBuilder(jsonApiDtos.resourceList(), jsonApiDtos.nullableTotalCount(),
+      jsonApiDtos.nextPageCursor());
   }
 
   /**
@@ -251,6 +252,18 @@ public class JsonApiModelAssistant <D extends JsonApiResource> {
    * @return
    */
   public JsonApiModelBuilder createJsonApiModelBuilder(List<JsonApiDto<D>> jsonApiDtos, Integer totalCount) {
+    return createJsonApiModelBuilder(jsonApiDtos, totalCount, null);
+  }
+
+  /**
+   *
+   * @param jsonApiDtos
+   * @param totalCount totalCount of resources or null to not include a totalResourceCount in the meta section.
+   * @param nextPageCursor cursor of the next page or null to not include a nextPageCursor in the meta section.
+   * @return
+   */
+  public JsonApiModelBuilder createJsonApiModelBuilder(List<JsonApiDto<D>> jsonApiDtos, Integer totalCount,
+                                                       String nextPageCursor) {
     JsonApiModelBuilder mainBuilder = jsonApiModel();
     List<RepresentationModel<?>> repModels = new ArrayList<>();
     Set<UUID> included = new HashSet<>();
@@ -269,6 +282,10 @@ public class JsonApiModelAssistant <D extends JsonApiResource> {
       metaSectionBuilder.totalResourceCount(totalCount);
     }
 
+    if (nextPageCursor != null) {
+      metaSectionBuilder.nextPageCursor(nextPageCursor);
+    }
+
     metaSectionBuilder.build()
       .populateMeta(mainBuilder::meta);
 
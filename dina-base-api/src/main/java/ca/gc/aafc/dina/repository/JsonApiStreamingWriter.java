@@ -0,0 +1,123 @@
+package ca.gc.aafc.dina.repository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.toedter.spring.hateoas.jsonapi.JsonApiModelBuilder;
+
+import ca.gc.aafc.dina.dto.JsonApiDto;
+import ca.gc.aafc.dina.dto.JsonApiMeta;
+import ca.gc.aafc.dina.dto.JsonApiResource;
+
+import static com.toedter.spring.hateoas.jsonapi.JsonApiModelBuilder.jsonApiModel;
+
+/**
+ * Writes a JSON:API collection document one resource at a time using a {@link JsonGenerator}.
+ * As opposed to {@link JsonApiModelAssistant#createJsonApiModelBuilder(List, Integer, String)}, the
+ * resources of the page are never all held in memory: each resource is serialized as soon as it is
+ * written. Only the "included" resources are kept (deduplicated by uuid) until the end of the document.
+ *
+ * Usage: {@link #writeResource(JsonApiDto)} for each resource then {@link #finish(Integer, String)}.
+ */
+public class JsonApiStreamingWriter<D extends JsonApiResource> implements Closeable {
+
+  private static final String DATA_KEY = "data";
+  private static final String INCLUDED_KEY = "included";
+  private static final String META_KEY = "meta";
+
+  private final ObjectMapper jsonApiObjectMapper;
+  private final String moduleVersion;
+  private final JsonGenerator generator;
+
+  private final Set<UUID> included = new HashSet<>();
+  private final List<JsonNode> includedResources = new ArrayList<>();
+
+  /**
+   * @param jsonApiObjectMapper ObjectMapper configured for JSON:API (the one used by Spring hateoas)
+   * @param moduleVersion version to report in the meta section
+   * @param out where the document will be written. Not closed by this writer.
+   * @throws IOException
+   */
+  public JsonApiStreamingWriter(ObjectMapper jsonApiObjectMapper, String moduleVersion,
+                                OutputStream out) throws IOException {
+    this.jsonApiObjectMapper = jsonApiObjectMapper;
+    this.moduleVersion = moduleVersion;
+    this.generator = jsonApiObjectMapper.getFactory().createGenerator(out)
+      .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    generator.writeStartObject();
+    generator.writeArrayFieldStart(DATA_KEY);
+  }
+
+  /**
+   * Write a resource in the data section. Included resources are only kept if not already included.
+   * @param jsonApiDto
+   * @throws IOException
+   */
+  public void writeResource(JsonApiDto<D> jsonApiDto) throws IOException {
+    JsonApiModelBuilder mainBuilder = jsonApiModel();
+    JsonApiModelBuilder builder = JsonApiModelAssistant.
+      createJsonApiModelBuilder(jsonApiDto, mainBuilder, included);
+    mainBuilder.model(builder.build());
+
+    JsonNode document = jsonApiObjectMapper.valueToTree(mainBuilder.build());
+    generator.writeTree(document.get(DATA_KEY));
+
+    JsonNode includedNode = document.get(INCLUDED_KEY);
+    if (includedNode != null) {
+      includedNode.forEach(includedResources::add);
+    }
+  }
+
+  /**
+   * Close the data section, write the included and meta sections and end the document.
+   * @param totalCount totalCount of resources or null to not include a totalResourceCount in the meta section.
+   * @param nextPageCursor cursor of the next page or null to not include a nextPageCursor in the meta section.
+   * @throws IOException
+   */
+  public void finish(Integer totalCount, String nextPageCursor) throws IOException {
+    generator.writeEndArray();
+
+    if (!includedResources.isEmpty()) {
+      generator.writeArrayFieldStart(INCLUDED_KEY);
+      for (JsonNode includedResource : includedResources) {
+        generator.writeTree(includedResource);
+      }
+      generator.writeEndArray();
+    }
+
+    var metaSectionBuilder = JsonApiMeta.builder()
+      .moduleVersion(moduleVersion);
+
+    if (totalCount != null) {
+      metaSectionBuilder.totalResourceCount(totalCount);
+    }
+
+    if (nextPageCursor != null) {
+      metaSectionBuilder.nextPageCursor(nextPageCursor);
+    }
+
+    Map<String, Object> meta = new LinkedHashMap<>();
+    metaSectionBuilder.build().populateMeta(meta::put);
+    generator.writeObjectField(META_KEY, meta);
+
+    generator.writeEndObject();
+    generator.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    generator.close();
+  }
+}
@@ -0,0 +1,98 @@
+package ca.gc.aafc.dina.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.ParameterExpression;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import ca.gc.aafc.dina.filter.FilterParameterBinder;
+
+/**
+ * Bounded (Caffeine) cache of {@link CriteriaQuery} built with parameters ({@link FilterParameterBinder}).
+ * Hibernate only caches the interpretation of HQL strings, a criteria is translated again on each execution.
+ * Reusing the same criteria for a filter of the same shape avoids rebuilding the predicates and keeps the
+ * generated SQL identical (with bind parameters) so the statement can be reused by the JDBC driver.
+ *
+ * The cache statistics are reported to the Micrometer global registry under the cache name
+ * "dina.query.plan.cache" with the tag "resource" (see {@link CaffeineCacheMetrics}).
+ */
+public class QueryPlanCache {
+
+  public static final String METRIC_NAME = "dina.query.plan.cache";
+  public static final int DEFAULT_MAX_SIZE = 128;
+
+  private final Cache<Object, QueryPlan<?>> plans;
+
+  /**
+   * @param resourceType type of the resource, used to tag the metrics
+   * @param maxSize maximum number of plans to keep
+   */
+  public QueryPlanCache(String resourceType, int maxSize) {
+    this.plans = Caffeine.newBuilder()
+      .maximumSize(maxSize)
+      .recordStats()
+      .build();
+    CaffeineCacheMetrics.monitor(Metrics.globalRegistry, plans, METRIC_NAME, "resource", resourceType);
+  }
+
+  public QueryPlanCache(String resourceType) {
+    this(resourceType, DEFAULT_MAX_SIZE);
+  }
+
+  /**
+   * Get the plan matching the key or build it.
+   * The plan is only kept if it can be reused ({@link FilterParameterBinder#isReusable()}).
+   *
+   * @param key key representing the shape of the query (must implement equals/hashCode)
+   * @param planBuilder called on a miss
+   * @return the plan
+   */
+  @SuppressWarnings("unchecked")
+  public <T> QueryPlan<T> get(Object key, Supplier<QueryPlan<T>> planBuilder) {
+    QueryPlan<T> plan = (QueryPlan<T>) plans.getIfPresent(key);
+    if (plan != null) {
+      return plan;
+    }
+
+    plan = planBuilder.get();
+    if (plan.binder().isReusable()) {
+      plans.put(key, plan);
+    }
+    return plan;
+  }
+
+  public long getHitCount() {
+    return plans.stats().hitCount();
+  }
+
+  public long getMissCount() {
+    return plans.stats().missCount();
+  }
+
+  public void clear() {
+    plans.invalidateAll();
+  }
+
+  /**
+   * A criteria and the binder used to build it.
+   * @param criteria the criteria, must not be modified once built
+   * @param binder
+   */
+  public record QueryPlan<T>(CriteriaQuery<T> criteria, FilterParameterBinder binder) {
+
+    /**
+     * Resolve the value of the parameters.
+     * @param values see {@link FilterParameterBinder#resolve(List)}
+     * @return
+     */
+    public Map<ParameterExpression<?>, Object> bind(List<String> values) {
+      return binder.resolve(values);
+    }
+  }
+}
@@ -13,8 +13,9 @@ import org.javers.core.metamodel.object.CdoSnapshot;
 import org.javers.repository.jql.QueryBuilder;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import jakarta.transaction.Transactional;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -37,6 +38,7 @@ public class AuditService {
    * @param auditInstance The audit instance to check
    * @return true if the given audit instance has a terminal snapshot associated with it
    */
+  @Transactional(readOnly = true)
   public boolean hasTerminalSnapshot(@NonNull AuditInstance auditInstance) {
     return this.findAll(auditInstance, null, Integer.MAX_VALUE, 0)
       .stream()
@@ -53,6 +55,7 @@ public class AuditService {
    * @param skip     - amount of results to skip
    * @return list of Audit snapshots
    */
+  @Transactional(readOnly = true)
   public List<CdoSnapshot> findAll(AuditInstance instance, String author, int limit, int skip) {
     return AuditService.findAll(this.javers, instance, author, limit, skip);
   }
@@ -65,6 +68,7 @@ public class AuditService {
    * @param instance - instance to filter
    * @return the total resource count
    */
+  @Transactional(readOnly = true)
   public Long getResouceCount(String author, AuditInstance instance) {
     return AuditService.getResouceCount(this.javersDataService, author, instance);
   }
@@ -97,6 +101,19 @@ public class AuditService {
     }
   }
 
+  /**
+   * Commit a snapshot for each object of the provided collection. The commit author is resolved once
+   * for the whole collection. If a user is not present the author will be anonymous.
+   *
+   * @param objs - domain objects state to persist
+   */
+  public void auditAll(@NonNull Collection<?> objs) {
+    String author = user.map(DinaAuthenticatedUser::getUsername).orElse(ANONYMOUS);
+    for (Object obj : objs) {
+      this.javers.commit(author, obj);
+    }
+  }
+
   /**
    * Commit a shallow delete snapshot for a given object, A dina authenticated
    * user will be set as the commit author. If a user is not present the author
@@ -112,6 +129,19 @@ public class AuditService {
     }
   }
 
+  /**
+   * Commit a shallow delete snapshot for each object of the provided collection. The commit author
+   * is resolved once for the whole collection. If a user is not present the author will be anonymous.
+   *
+   * @param objs - domain objects state to persist
+   */
+  public void auditDeleteEvents(@NonNull Collection<?> objs) {
+    String author = user.map(DinaAuthenticatedUser::getUsername).orElse(ANONYMOUS);
+    for (Object obj : objs) {
+      this.javers.commitShallowDelete(author, obj);
+    }
+  }
+
   /**
    * Returns a list of Audit snapshots using a given Javers Facade filtered by a
    * given instance and author. Author and instance can be null for un-filtered
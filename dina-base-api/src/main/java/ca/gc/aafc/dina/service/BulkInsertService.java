@@ -0,0 +1,70 @@
+package ca.gc.aafc.dina.service;
+
+import ca.gc.aafc.dina.entity.DinaEntity;
+import ca.gc.aafc.dina.jpa.BaseDAO;
+
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Service used to insert a large number of entities (e.g. imports) without keeping them in the
+ * persistence context.
+ *
+ * Entities go through the same preCreate, constraints validation and business rules validation as
+ * {@link DefaultDinaService#create(DinaEntity)} but are written by a Hibernate StatelessSession:
+ * no first-level cache, no dirty-checking, no cascade and no postCreate/message.
+ * Relationships must be set using references (e.g. {@link DinaService#getReferenceByNaturalId(Class, Object)}).
+ *
+ * @param <E> - Type of {@link DinaEntity}
+ */
+public class BulkInsertService<E extends DinaEntity> {
+
+  public static final int DEFAULT_JDBC_BATCH_SIZE = 500;
+
+  private final BaseDAO baseDAO;
+  private final DefaultDinaService<E> dinaService;
+  private final int jdbcBatchSize;
+
+  public BulkInsertService(@NonNull BaseDAO baseDAO, @NonNull DefaultDinaService<E> dinaService) {
+    this(baseDAO, dinaService, DEFAULT_JDBC_BATCH_SIZE);
+  }
+
+  public BulkInsertService(@NonNull BaseDAO baseDAO, @NonNull DefaultDinaService<E> dinaService,
+                           int jdbcBatchSize) {
+    this.baseDAO = baseDAO;
+    this.dinaService = dinaService;
+    this.jdbcBatchSize = jdbcBatchSize;
+  }
+
+  /**
+   * Validate and insert all the provided entities in the current transaction.
+   * The entities are not kept by this service so the provided Iterable can be lazy.
+   *
+   * @param entities entities to insert
+   * @return the generated id and the uuid of each entity, in the same order
+   */
+  public List<InsertedIdentifier> insertAll(@NonNull Iterable<E> entities) {
+    return baseDAO.withStatelessSession(jdbcBatchSize, session -> {
+      List<InsertedIdentifier> identifiers = new ArrayList<>();
+      for (E entity : entities) {
+        dinaService.preCreate(entity);
+        dinaService.validateConstraints(entity, OnCreate.class);
+        dinaService.validateBusinessRules(entity);
+        session.insert(entity);
+        identifiers.add(new InsertedIdentifier(entity.getId(), entity.getUuid()));
+      }
+      return identifiers;
+    });
+  }
+
+  /**
+   * Identifiers of an inserted entity.
+   * @param id database id
+   * @param uuid natural id
+   */
+  public record InsertedIdentifier(Integer id, UUID uuid) {
+  }
+}
@@ -13,31 +13,49 @@ import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.validation.Errors;
 import org.springframework.validation.ObjectError;
 import org.springframework.validation.SmartValidator;
 import org.springframework.validation.Validator;
 
 import jakarta.inject.Inject;
+import jakarta.persistence.Tuple;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.ParameterExpression;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.ValidationException;
 import jakarta.validation.groups.Default;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Service class for database interactions with a {@link DinaEntity}.
+ * Work wrapped in {@link #supplyReadOnly(Supplier)} and {@link #scroll} runs in a read-only transaction
+ * so it can be routed to a read replica (see {@link ca.gc.aafc.dina.datasource.ReadReplicaRoutingDataSource}).
  *
  * @param <E> - Type of {@link DinaEntity}
  */
@@ -89,17 +107,59 @@ public class DefaultDinaService<E extends DinaEntity> implements DinaService<E>
   }
 
   /**
-   * Merge the state of a given entity into the current persistence context.
+   * Merge the state of a given entity into the current persistence context and flush the changes.
    *
    * @param entity entity to update
    * @return returns the managed instance the state was merged to.
    */
   @Override
   public E update(E entity) {
+    return doUpdate(entity, true);
+  }
+
+  /**
+   * Merge the state of a given entity into the current persistence context without flushing.
+   * {@link #flush()} should be called (or the transaction ended) to get database errors.
+   * Subclasses overriding {@link #update(Object)} should also override this method since it is used by
+   * {@link #updateAll(List)}.
+   *
+   * @param entity entity to update
+   * @return returns the managed instance the state was merged to.
+   */
+  @Override
+  public E updateWithoutFlush(E entity) {
+    return doUpdate(entity, false);
+  }
+
+  /**
+   * Private method handling entity update
+   * @param entity
+   * @param flush
+   * @return
+   */
+  private E doUpdate(E entity, boolean flush) {
     preUpdate(entity);
     validateConstraints(entity, OnUpdate.class);
     validateBusinessRules(entity);
-    return baseDAO.update(entity);
+    return baseDAO.update(entity, flush);
+  }
+
+  /**
+   * Merge the state of the given entities into the current persistence context (using
+   * {@link #updateWithoutFlush(Object)}) and flush the changes once all entities are merged.
+   *
+   * @param entities entities to update
+   * @return returns the managed instances the states were merged to.
+   */
+  @Override
+  public List<E> updateAll(List<E> entities) {
+    List<E> updated = new ArrayList<>(entities.size());
+    for (E entity : entities) {
+      updated.add(updateWithoutFlush(entity));
+    }
+    // Flush here to throw any validation errors:
+    baseDAO.flush();
+    return updated;
   }
 
   @Override
@@ -143,6 +203,7 @@ public class DefaultDinaService<E extends DinaEntity> implements DinaService<E>
   /**
    * See {@link BaseDAO#refresh(Object)}
    */
+  @Override
   public void refresh(Object entity) {
     baseDAO.refresh(entity);
   }
@@ -150,13 +211,23 @@ public class DefaultDinaService<E extends DinaEntity> implements DinaService<E>
   /**
    * See {@link BaseDAO#detach(Object)}
    */
+  @Override
   public void detach(Object entity) {
     baseDAO.detach(entity);
   }
 
+  /**
+   * See {@link BaseDAO#clear()}
+   */
+  @Override
+  public void clear() {
+    baseDAO.clear();
+  }
+
   /**
    * See {@link BaseDAO#flush()}
    */
+  @Override
   public void flush() {
     baseDAO.flush();
   }
@@ -171,6 +242,248 @@ public class DefaultDinaService<E extends DinaEntity> implements DinaService<E>
     int maxResult,
     @NonNull Set<String> includes,
     @NonNull Set<String> relationships
+  ) {
+    Map<String, Object> hints = relationships.isEmpty() ? null :
+      relationshipPathToLoadHints(entityClass, relationships);
+    return baseDAO.resultListFromCriteria(buildCriteria(entityClass, where, orderBy), startIndex, maxResult, hints);
+  }
+
+  /**
+   * Selects only the provided attributes using a tuple query, the entities are not loaded.
+   */
+  @Override
+  public <T> List<Map<String, Object>> findAllAttributes(
+    @NonNull Class<T> entityClass,
+    @NonNull List<String> attributes,
+    @NonNull PredicateSupplier<T> where,
+    BiFunction<CriteriaBuilder, Root<T>, List<Order>> orderBy,
+    int startIndex,
+    int maxResult
+  ) {
+    CriteriaBuilder criteriaBuilder = baseDAO.getCriteriaBuilder();
+    CriteriaQuery<Tuple> criteria = criteriaBuilder.createTupleQuery();
+    Root<T> root = criteria.from(entityClass);
+    Predicate[] predicates = baseDAO.buildPredicateFromSupplier(where, criteriaBuilder, root);
+
+    if (ArrayUtils.isNotEmpty(predicates)) {
+      criteria.where(predicates);
+    }
+    List<Selection<?>> selections = new ArrayList<>(attributes.size());
+    for (String attribute : attributes) {
+      selections.add(root.get(attribute));
+    }
+    criteria.multiselect(selections);
+    if (orderBy != null) {
+      criteria.orderBy(orderBy.apply(criteriaBuilder, root));
+    }
+
+    List<Tuple> tuples = baseDAO.resultListFromCriteria(criteria, startIndex, maxResult);
+    List<Map<String, Object>> results = new ArrayList<>(tuples.size());
+    for (Tuple tuple : tuples) {
+      Map<String, Object> values = new LinkedHashMap<>();
+      for (int i = 0; i < attributes.size(); i++) {
+        values.put(attributes.get(i), tuple.get(i));
+      }
+      results.add(values);
+    }
+    return results;
+  }
+
+  /**
+   * The count is started first (see {@link #parallelResourceCount(Supplier, Duration)}) so it runs while
+   * the page is loaded. If the count is not completed within the countTimeout, it is dropped and the
+   * totalCount will be null.
+   */
+  @Override
+  public <T> EntityPage<T> findPage(
+    @NonNull Class<T> entityClass,
+    @NonNull PredicateSupplier<T> where,
+    BiFunction<CriteriaBuilder, Root<T>, List<Order>> orderBy,
+    int startIndex,
+    int maxResult,
+    @NonNull Set<String> includes,
+    @NonNull Set<String> relationships,
+    @NonNull Duration countTimeout
+  ) {
+    Supplier<Long> count = parallelResourceCount(() -> baseDAO.getResourceCount(entityClass, where), countTimeout);
+    List<T> entities = findAll(entityClass, where, orderBy, startIndex, maxResult, includes, relationships);
+    return new EntityPage<>(entities, count.get());
+  }
+
+  /**
+   * The count runs on a virtual thread with its own read-only transaction using countTimeout as transaction
+   * timeout so the query is cancelled by the database when the timeout is reached.
+   * When called within a read-write transaction, the count runs right away in that transaction instead
+   * (without timeout) so it includes the uncommitted changes, like the page does.
+   */
+  @Override
+  public Supplier<Long> parallelResourceCount(@NonNull Supplier<Long> countSupplier,
+                                              @NonNull Duration countTimeout) {
+    if (TransactionSynchronizationManager.isActualTransactionActive() &&
+        !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+      Long count = countSupplier.get();
+      return () -> count;
+    }
+
+    long deadline = System.nanoTime() + countTimeout.toNanos();
+    CompletableFuture<Long> count = baseDAO.supplyAsyncReadOnly(countSupplier, countTimeout);
+    return () -> awaitCount(count, deadline);
+  }
+
+  /**
+   * Joins the current transaction if there is one, otherwise starts a read-only transaction
+   * (routed to a read replica when enabled).
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public <T> T supplyReadOnly(@NonNull Supplier<T> work) {
+    return work.get();
+  }
+
+  private static Long awaitCount(CompletableFuture<Long> count, long deadline) {
+    try {
+      return count.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    } catch (TimeoutException tEx) {
+      // the query itself will be cancelled by the transaction timeout
+      return null;
+    } catch (InterruptedException iEx) {
+      Thread.currentThread().interrupt();
+      return null;
+    } catch (ExecutionException eEx) {
+      if (eEx.getCause() instanceof RuntimeException rEx) {
+        throw rEx;
+      }
+      throw new IllegalStateException(eEx.getCause());
+    }
+  }
+
+  @Override
+  public <T> Stream<T> streamAll(
+    @NonNull CriteriaQuery<T> criteria,
+    int startIndex,
+    int maxResult,
+    @NonNull Set<String> relationships,
+    int fetchSize
+  ) {
+    Class<T> entityClass = criteria.getResultType();
+    // fetching a collection on a cursor would duplicate the rows
+    checkNoCollectionPath(entityClass, relationships);
+    Map<String, Object> hints = relationships.isEmpty() ? null :
+      relationshipPathToLoadHints(entityClass, relationships);
+    return baseDAO.resultStreamFromCriteria(criteria, startIndex, maxResult, fetchSize, hints);
+  }
+
+  /**
+   * Runs in a read-only transaction and clears the persistence context after each chunk: changes made by the
+   * consumer are discarded. Relationships going through a collection are rejected since the persistence context
+   * can't be cleared while a collection is being fetched.
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public <T> long scroll(
+    @NonNull Class<T> entityClass,
+    @NonNull PredicateSupplier<T> where,
+    BiFunction<CriteriaBuilder, Root<T>, List<Order>> orderBy,
+    @NonNull Set<String> relationships,
+    int chunkSize,
+    @NonNull Consumer<List<T>> consumer
+  ) {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("chunkSize must be greater than 0");
+    }
+    checkNoCollectionPath(entityClass, relationships);
+
+    // pending changes made before the call would otherwise be lost when the persistence context is cleared
+    baseDAO.flush();
+
+    long count = 0;
+    List<T> chunk = new ArrayList<>(chunkSize);
+    try (Stream<T> entities = streamAll(buildCriteria(entityClass, where, orderBy), 0, Integer.MAX_VALUE,
+      relationships, chunkSize)) {
+      for (Iterator<T> it = entities.iterator(); it.hasNext(); ) {
+        chunk.add(it.next());
+        if (chunk.size() == chunkSize) {
+          count += processChunk(chunk, consumer);
+        }
+      }
+    }
+    if (!chunk.isEmpty()) {
+      count += processChunk(chunk, consumer);
+    }
+    return count;
+  }
+
+  private void checkNoCollectionPath(Class<?> entityClass, Set<String> relationships) {
+    for (String relationship : relationships) {
+      if (baseDAO.isCollectionPath(entityClass, relationship)) {
+        throw new IllegalArgumentException("Collection relationship [" + relationship + "] can't be streamed");
+      }
+    }
+  }
+
+  private <T> int processChunk(List<T> chunk, Consumer<List<T>> consumer) {
+    int size = chunk.size();
+    consumer.accept(List.copyOf(chunk));
+    chunk.clear();
+    // read-only, nothing to flush
+    baseDAO.clear();
+    return size;
+  }
+
+  @Override
+  public <T> CriteriaQuery<T> buildCriteriaQuery(
+    @NonNull Class<T> entityClass,
+    @NonNull PredicateSupplier<T> where,
+    BiFunction<CriteriaBuilder, Root<T>, List<Order>> orderBy
+  ) {
+    return buildCriteria(entityClass, where, orderBy);
+  }
+
+  @Override
+  public <T> CriteriaQuery<T> buildCriteriaQuery(
+    @NonNull Class<T> entityClass,
+    @NonNull String fiql,
+    List<String> orderBy
+  ) {
+    return baseDAO.createWithEntityManager(
+      entityManager ->
+        FIQLFilterHandler.criteriaQuery(entityManager, fiql, entityClass,
+          entityClass, orderBy));
+  }
+
+  @Override
+  public <T> CriteriaQuery<Long> buildCountCriteriaQuery(
+    @NonNull Class<T> entityClass,
+    @NonNull PredicateSupplier<T> predicateSupplier
+  ) {
+    return baseDAO.buildCountCriteria(entityClass, predicateSupplier);
+  }
+
+  @Override
+  public <T> List<T> findAll(
+    @NonNull CriteriaQuery<T> criteria,
+    Map<ParameterExpression<?>, Object> parameters,
+    int startIndex,
+    int maxResult,
+    @NonNull Set<String> relationships
+  ) {
+    Map<String, Object> hints = relationships.isEmpty() ? null :
+      relationshipPathToLoadHints(criteria.getResultType(), relationships);
+    return baseDAO.resultListFromCriteria(criteria, parameters, startIndex, maxResult, hints);
+  }
+
+  @Override
+  public Long getResourceCount(
+    @NonNull CriteriaQuery<Long> countCriteria,
+    Map<ParameterExpression<?>, Object> parameters
+  ) {
+    return baseDAO.getResourceCount(countCriteria, parameters);
+  }
+
+  private <T> CriteriaQuery<T> buildCriteria(
+    Class<T> entityClass,
+    PredicateSupplier<T> where,
+    BiFunction<CriteriaBuilder, Root<T>, List<Order>> orderBy
   ) {
     CriteriaBuilder criteriaBuilder = baseDAO.getCriteriaBuilder();
     CriteriaQuery<T> criteria = criteriaBuilder.createQuery(entityClass);
@@ -184,9 +497,7 @@ public class DefaultDinaService<E extends DinaEntity> implements DinaService<E>
     if (orderBy != null) {
       criteria.orderBy(orderBy.apply(criteriaBuilder, root));
     }
-
-    Map<String, Object> hints = relationships.isEmpty() ? null : relationshipPathToLoadHints(entityClass, relationships);
-    return baseDAO.resultListFromCriteria(criteria, startIndex, maxResult, hints);
+    return criteria;
   }
 
   public <T> List<T> findAll(
@@ -204,9 +515,9 @@ public class DefaultDinaService<E extends DinaEntity> implements DinaService<E>
         FIQLFilterHandler.criteriaQuery(entityManager, fiql, entityClass,
         entityClass, orderBy));
 
-
-    //Map<String, Object> hints = relationships.isEmpty() ? null : relationshipPathToLoadHints(entityClass, relationships);
-    return baseDAO.resultListFromCriteria(criteria, startIndex, maxResult);
+    Map<String, Object> hints = relationships.isEmpty() ? null :
+      relationshipPathToLoadHints(entityClass, relationships);
+    return baseDAO.resultListFromCriteria(criteria, startIndex, maxResult, hints);
   }
 
   /**
@@ -248,6 +559,22 @@ public class DefaultDinaService<E extends DinaEntity> implements DinaService<E>
         FIQLFilterHandler.count(entityManager, fiql, entityClass));
   }
 
+  @Override
+  public Long getEstimatedResourceCount(@NonNull Class<?> entityClass) {
+    return baseDAO.getEstimatedResourceCount(entityClass);
+  }
+
+  @Override
+  public String getDatabaseIdFieldName(@NonNull Class<?> entityClass) {
+    return baseDAO.getDatabaseIdFieldName(entityClass);
+  }
+
+  @Override
+  public boolean hasDatabaseGeneratedValues(@NonNull Class<?> entityClass) {
+    return baseDAO.hasDatabaseGeneratedValues(entityClass);
+  }
+
+
   @Override
   public <T> T findOne(Object naturalId, Class<T> entityClass) {
     return baseDAO.findOneByNaturalId(naturalId, entityClass);
@@ -255,11 +582,26 @@ public class DefaultDinaService<E extends DinaEntity> implements DinaService<E>
 
   @Override
   public <T> T findOne(Object naturalId, Class<T> entityClass, Set<String> relationships) {
-    Map<String, Object> hints = relationships.isEmpty() ? null : relationshipPathToLoadHints(entityClass, relationships);
+    Map<String, Object> hints = relationships.isEmpty() ? null :
+      relationshipPathToLoadHints(entityClass, relationships);
 
     return baseDAO.findOneByNaturalId(naturalId, entityClass, hints);
   }
 
+  @Override
+  public <T> List<T> findAllByNaturalIds(Collection<?> naturalIds, Class<T> entityClass,
+                                         Set<String> relationships) {
+    Map<String, Object> hints = relationships.isEmpty() ? null :
+      relationshipPathToLoadHints(entityClass, relationships);
+
+    return baseDAO.findAllByNaturalIds(naturalIds, entityClass, hints);
+  }
+
+  @Override
+  public <T> List<T> findAllByNaturalIdsOrdered(Class<T> entityClass, Collection<?> naturalIds) {
+    return baseDAO.findAllByNaturalIdsOrdered(entityClass, naturalIds, getNaturalIdBatchSize());
+  }
+
   /**
    * Override this method to handle optional fields
    * {@inheritDoc}
@@ -337,6 +679,20 @@ public class DefaultDinaService<E extends DinaEntity> implements DinaService<E>
     return baseDAO.existsByNaturalId(naturalId, entityClass);
   }
 
+  @Override
+  public boolean existsByNaturalIds(Class<?> entityClass, Collection<?> naturalIds) {
+    return baseDAO.existsByNaturalIds(entityClass, naturalIds, getNaturalIdBatchSize());
+  }
+
+  /**
+   * Override this method to change the maximum number of natural ids used per query
+   * by {@link #findAllByNaturalIdsOrdered(Class, Collection)} and {@link #existsByNaturalIds(Class, Collection)}.
+   * @return {@link BaseDAO#DEFAULT_NATURAL_ID_BATCH_SIZE} by default
+   */
+  protected int getNaturalIdBatchSize() {
+    return BaseDAO.DEFAULT_NATURAL_ID_BATCH_SIZE;
+  }
+
   /**
    * Run before the {@link DefaultDinaService#create(DinaEntity)} method.
    *
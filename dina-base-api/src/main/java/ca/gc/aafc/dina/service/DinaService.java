@@ -3,18 +3,29 @@ package ca.gc.aafc.dina.service;
 import ca.gc.aafc.dina.entity.DinaEntity;
 import ca.gc.aafc.dina.jpa.PredicateSupplier;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 import lombok.NonNull;
 
+import org.apache.commons.beanutils.PropertyUtils;
+
 import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.ParameterExpression;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import jakarta.validation.groups.Default;
 import java.util.List;
 import java.util.Set;
 import java.util.function.BiFunction;
+import java.util.stream.Stream;
 
 /**
  * Service class to provide a interface to a datasource.
@@ -40,6 +51,30 @@ public interface DinaService<E extends DinaEntity> {
    */
   E update(E entity);
 
+  /**
+   * Same as {@link #update(DinaEntity)} but the changes are only sent to the database on the next
+   * {@link #flush()} (or at the end of the transaction) so statements can be batched.
+   * Validation is done immediately but database errors (e.g. unique constraint) are only thrown on flush.
+   * The default implementation calls {@link #update(DinaEntity)}.
+   *
+   * @param entity entity to update.
+   * @return a given entity as it will be persisted.
+   */
+  default E updateWithoutFlush(E entity) {
+    return update(entity);
+  }
+
+  /**
+   * Updates all the given entities. Implementations can defer flushing the changes until
+   * all entities are updated.
+   *
+   * @param entities entities to update.
+   * @return the given entities as they were persisted.
+   */
+  default List<E> updateAll(List<E> entities) {
+    return entities.stream().map(this::update).toList();
+  }
+
   <T> void setRelationshipByNaturalIdReference(Class<T> entityClass, Object naturalId, Consumer<T> objConsumer);
 
   /**
@@ -68,6 +103,38 @@ public interface DinaService<E extends DinaEntity> {
    */
   <T> T findOne(Object naturalId, Class<T> entityClass, Set<String> relationships);
 
+  /**
+   * Find all the entities matching the provided NaturalIds using a single query.
+   * The relationships set can be used to force lazy loaded relationships to be loaded.
+   * @param naturalIds
+   * @param entityClass
+   * @param relationships relationships to load or an empty set, not null.
+   * The default implementation calls {@link #findOne(Object, Class, Set)} for each NaturalId.
+   * @return the matched entities (in no specific order) or an empty list if nothing is found.
+   */
+  default <T> List<T> findAllByNaturalIds(Collection<?> naturalIds, Class<T> entityClass, Set<String> relationships) {
+    return naturalIds.stream()
+      .map(naturalId -> findOne(naturalId, entityClass, relationships))
+      .filter(Objects::nonNull)
+      .toList();
+  }
+
+  /**
+   * Find all the entities matching the provided NaturalIds using as few queries as possible
+   * (one per batch of NaturalIds).
+   * The default implementation calls {@link #findOne(Object, Class)} for each NaturalId.
+   * @param entityClass
+   * @param naturalIds
+   * @return the entities in the same order as the naturalIds. Null is used for NaturalIds that can't be found.
+   */
+  default <T> List<T> findAllByNaturalIdsOrdered(Class<T> entityClass, Collection<?> naturalIds) {
+    List<T> entities = new ArrayList<>(naturalIds.size());
+    for (Object naturalId : naturalIds) {
+      entities.add(findOne(naturalId, entityClass));
+    }
+    return entities;
+  }
+
   /**
    * Called after findOne or findAll to load optional fields
    * @param entity
@@ -133,6 +200,98 @@ public interface DinaService<E extends DinaEntity> {
     @NonNull Set<String> relationships
   );
 
+  /**
+   * Same as {@link #findAll(Class, PredicateSupplier, BiFunction, int, int, Set, Set)} but also returns the
+   * total number of entities matching the predicates.
+   * The default implementation runs both queries one after the other.
+   *
+   * @param entityClass  - entity class to query cannot be null
+   * @param where        - function to return the predicates cannot be null
+   * @param orderBy      - function to return the sorting criteria can be null
+   * @param startIndex   - position of first result to retrieve
+   * @param maxResult    - maximum number of results to return
+   * @param includes     - list of includes including but not limited to relationships or an empty set, not null.
+   * @param relationships - relationships to load or an empty set, not null.
+   * @param countTimeout - maximum time to wait for the count. Implementations may return a null count
+   *                     when it is reached.
+   * @return the entities and the total count (can be null)
+   */
+  default <T> EntityPage<T> findPage(
+    @NonNull Class<T> entityClass,
+    @NonNull PredicateSupplier<T> where,
+    BiFunction<CriteriaBuilder, Root<T>, List<Order>> orderBy,
+    int startIndex,
+    int maxResult,
+    @NonNull Set<String> includes,
+    @NonNull Set<String> relationships,
+    @NonNull Duration countTimeout
+  ) {
+    return new EntityPage<>(
+      findAll(entityClass, where, orderBy, startIndex, maxResult, includes, relationships),
+      getResourceCount(entityClass, where));
+  }
+
+  /**
+   * Starts the provided count so it can run in parallel with the current work and returns a supplier of its result.
+   * The returned supplier gives null if the count is not completed within the countTimeout.
+   * The default implementation runs the count when the returned supplier is called.
+   *
+   * @param countSupplier - the count to run cannot be null
+   * @param countTimeout  - maximum time to wait for the count
+   * @return supplier of the count (can supply null)
+   */
+  default Supplier<Long> parallelResourceCount(@NonNull Supplier<Long> countSupplier, @NonNull Duration countTimeout) {
+    return countSupplier;
+  }
+
+  /**
+   * Runs the provided work within a single read-only transaction so all its queries use the same connection.
+   * The default implementation simply runs the work.
+   *
+   * @param work - the work to run cannot be null
+   * @return result of the work
+   */
+  default <T> T supplyReadOnly(@NonNull Supplier<T> work) {
+    return work.get();
+  }
+
+  /**
+   * Returns the values of the provided attributes, instead of the entities, for the entities
+   * restricted by the predicates. Used to avoid loading the full entities when only some attributes are needed.
+   * The default implementation loads the entities and reads the attributes.
+   *
+   * @param entityClass - entity class to query cannot be null
+   * @param attributes  - attributes (of the entity) to return cannot be null
+   * @param where       - function to return the predicates cannot be null
+   * @param orderBy     - function to return the sorting criteria can be null
+   * @param startIndex  - position of first result to retrieve
+   * @param maxResult   - maximum number of results to return
+   * @return one map (attribute name to value) per entity
+   */
+  default <T> List<Map<String, Object>> findAllAttributes(
+    @NonNull Class<T> entityClass,
+    @NonNull List<String> attributes,
+    @NonNull PredicateSupplier<T> where,
+    BiFunction<CriteriaBuilder, Root<T>, List<Order>> orderBy,
+    int startIndex,
+    int maxResult
+  ) {
+    List<T> entities = findAll(entityClass, where, orderBy, startIndex, maxResult, Set.of(), Set.of());
+    List<Map<String, Object>> results = new ArrayList<>(entities.size());
+    for (T entity : entities) {
+      Map<String, Object> values = new LinkedHashMap<>();
+      for (String attribute : attributes) {
+        try {
+          values.put(attribute, PropertyUtils.getProperty(entity, attribute));
+        } catch (ReflectiveOperationException e) {
+          throw new IllegalArgumentException("Can't read attribute " + attribute, e);
+        }
+      }
+      results.add(values);
+    }
+    return results;
+  }
+
   <T> List<T> findAll(
     Class<T> entityClass,
     String fiql,
@@ -143,6 +302,140 @@ public interface DinaService<E extends DinaEntity> {
     @NonNull Set<String> relationships
   );
 
+  /**
+   * Returns a {@link Stream} of the entities matching a criteria built by
+   * {@link #buildCriteriaQuery(Class, PredicateSupplier, BiFunction)} or
+   * {@link #buildCriteriaQuery(Class, String, List)}, backed by a single database cursor.
+   * This is the streaming primitive used to process a large number of entities (e.g. export, scroll).
+   * Relationships going through a collection are rejected since fetching them would duplicate the rows
+   * of the cursor.
+   * The Stream should be closed by the caller and consumed within a transaction.
+   * The default implementation loads the full list.
+   *
+   * @param criteria      - the criteria cannot be null
+   * @param startIndex    - position of first result to retrieve
+   * @param maxResult     - maximum number of results to return
+   * @param relationships - relationships to load with the entities or an empty set, not null.
+   * @param fetchSize     - number of rows fetched from the database at a time
+   * @return Stream of entities
+   * @throws IllegalArgumentException if a relationship goes through a collection
+   */
+  default <T> Stream<T> streamAll(
+    @NonNull CriteriaQuery<T> criteria,
+    int startIndex,
+    int maxResult,
+    @NonNull Set<String> relationships,
+    int fetchSize
+  ) {
+    return findAll(criteria, null, startIndex, maxResult, relationships).stream();
+  }
+
+  /**
+   * Go through all the entities matching the predicates and give them to the consumer in chunks of
+   * chunkSize entities. Implementations should use {@link #streamAll(CriteriaQuery, int, int, Set, int)} and
+   * clear the persistence context after each chunk so a whole table can be processed in constant memory
+   * (e.g. re-indexing).
+   * Entities are detached once the consumer returns: changes made by the consumer are not saved and the entities
+   * should not be kept by the consumer. Relationships going through a collection are not supported.
+   * The default implementation loads the full list.
+   *
+   * @param entityClass   - entity class to query cannot be null
+   * @param where         - function to return the predicates cannot be null
+   * @param orderBy       - function to return the sorting criteria can be null
+   * @param relationships - relationships to load with the entities cannot be null
+   * @param chunkSize     - number of entities given to the consumer at a time
+   * @param consumer      - consumer of each chunk
+   * @return total number of entities processed
+   */
+  default <T> long scroll(
+    @NonNull Class<T> entityClass,
+    @NonNull PredicateSupplier<T> where,
+    BiFunction<CriteriaBuilder, Root<T>, List<Order>> orderBy,
+    @NonNull Set<String> relationships,
+    int chunkSize,
+    @NonNull Consumer<List<T>> consumer
+  ) {
+    List<T> entities = findAll(entityClass, where, orderBy, 0, Integer.MAX_VALUE, Set.of(), relationships);
+    for (int i = 0; i < entities.size(); i += chunkSize) {
+      consumer.accept(entities.subList(i, Math.min(i + chunkSize, entities.size())));
+    }
+    return entities.size();
+  }
+
+  /**
+   * Build the criteria used by {@link #findAll(Class, PredicateSupplier, BiFunction, int, int, Set, Set)}
+   * without executing it. The criteria can be executed (multiple times) with
+   * {@link #findAll(CriteriaQuery, Map, int, int, Set)}.
+   *
+   * @param entityClass - entity class to query cannot be null
+   * @param where       - function to return the predicates cannot be null
+   * @param orderBy     - function to return the sorting criteria can be null
+   * @return the criteria
+   */
+  <T> CriteriaQuery<T> buildCriteriaQuery(
+    @NonNull Class<T> entityClass,
+    @NonNull PredicateSupplier<T> where,
+    BiFunction<CriteriaBuilder, Root<T>, List<Order>> orderBy
+  );
+
+  /**
+   * Same as {@link #buildCriteriaQuery(Class, PredicateSupplier, BiFunction)} but using a FIQL string.
+   *
+   * @param entityClass - entity class to query cannot be null
+   * @param fiql        - FIQL filter
+   * @param orderBy     - sort attributes can be null
+   * @return the criteria
+   */
+  <T> CriteriaQuery<T> buildCriteriaQuery(
+    @NonNull Class<T> entityClass,
+    @NonNull String fiql,
+    List<String> orderBy
+  );
+
+  /**
+   * Build the criteria used by {@link #getResourceCount(Class, PredicateSupplier)} without executing it.
+   * The criteria can be executed (multiple times) with {@link #getResourceCount(CriteriaQuery, Map)}.
+   *
+   * @param entityClass       - entity class to query cannot be null
+   * @param predicateSupplier - function to return the predicates cannot be null
+   * @return the count criteria
+   */
+  <T> CriteriaQuery<Long> buildCountCriteriaQuery(
+    @NonNull Class<T> entityClass,
+    @NonNull PredicateSupplier<T> predicateSupplier
+  );
+
+  /**
+   * Returns a list of Entities from a criteria built by
+   * {@link #buildCriteriaQuery(Class, PredicateSupplier, BiFunction)}.
+   *
+   * @param criteria      - the criteria cannot be null
+   * @param parameters    - value of each parameter of the criteria or null
+   * @param startIndex    - position of first result to retrieve
+   * @param maxResult     - maximum number of results to return
+   * @param relationships - relationships to load or an empty set, not null.
+   * @return list of entities
+   */
+  <T> List<T> findAll(
+    @NonNull CriteriaQuery<T> criteria,
+    Map<ParameterExpression<?>, Object> parameters,
+    int startIndex,
+    int maxResult,
+    @NonNull Set<String> relationships
+  );
+
+  /**
+   * Returns the resource count from a criteria built by {@link #buildCountCriteriaQuery(Class, PredicateSupplier)}.
+   *
+   * @param countCriteria - the count criteria cannot be null
+   * @param parameters    - value of each parameter of the criteria or null
+   * @return resource count
+   */
+  Long getResourceCount(
+    @NonNull CriteriaQuery<Long> countCriteria,
+    Map<ParameterExpression<?>, Object> parameters
+  );
+
   /**
    * Returns the resource count from a given predicate supplier.
    *
@@ -178,11 +471,73 @@ public interface DinaService<E extends DinaEntity> {
     @NonNull String fiql
   );
 
+  /**
+   * Force a flush of the pending changes to the database.
+   */
+  void flush();
+
+  /**
+   * Refresh the state of the entity from the database.
+   * @param entity
+   */
+  void refresh(Object entity);
+
+  /**
+   * Remove the entity from the persistence context.
+   * @param entity
+   */
+  void detach(Object entity);
+
+  /**
+   * Clear the persistence context. All the managed entities become detached.
+   */
+  void clear();
+
+  /**
+   * Returns the estimated resource count of the entity table based on the database statistics.
+   * Much cheaper than an exact count but can't consider any predicates.
+   *
+   * @param entityClass - entity class to query cannot be null
+   * @return estimated resource count or null if no estimate is available
+   */
+  default Long getEstimatedResourceCount(@NonNull Class<?> entityClass) {
+    return null;
+  }
+
+  /**
+   * Returns the name of the attribute holding the database id of the entity.
+   *
+   * @param entityClass - entity class cannot be null
+   * @return name of the database id attribute
+   */
+  String getDatabaseIdFieldName(@NonNull Class<?> entityClass);
+
+  /**
+   * Checks if some values of the entity are set by the database (e.g. column default values, generated values)
+   * and are only available after a {@link #refresh(Object)}.
+   * The default implementation returns true.
+   *
+   * @param entityClass - entity class cannot be null
+   * @return true if the entity has at least one value set by the database
+   */
+  default boolean hasDatabaseGeneratedValues(@NonNull Class<?> entityClass) {
+    return true;
+  }
+
   /**
    * Check for the existence of a record by natural id.
    */
   boolean exists(Class<?> entityClass, Object naturalId);
 
+  /**
+   * Check for the existence of all the records identified by the provided natural ids.
+   * The default implementation calls {@link #exists(Class, Object)} for each natural id.
+   * @return true if they all exist
+   */
+  default boolean existsByNaturalIds(Class<?> entityClass, Collection<?> naturalIds) {
+    return naturalIds.stream().allMatch(naturalId -> exists(entityClass, naturalId));
+  }
+
   void validateConstraints(E entity, Class<? extends Default> validationGroup);
 
   /**
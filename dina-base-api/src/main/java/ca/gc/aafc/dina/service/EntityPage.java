@@ -0,0 +1,13 @@
+package ca.gc.aafc.dina.service;
+
+import java.util.List;
+
+/**
+ * A page of entities with the total number of entities matching the query.
+ *
+ * @param entities   entities of the page
+ * @param totalCount total number of entities or null if not available (e.g. count timeout)
+ * @param <T>        type of entity
+ */
+public record EntityPage<T>(List<T> entities, Long totalCount) {
+}
@@ -96,6 +96,15 @@ public class MessageProducingService<E extends DinaEntity> extends DefaultDinaSe
     return persisted;
   }
 
+  @Override
+  public E updateWithoutFlush(E entity) {
+    E persisted = super.updateWithoutFlush(entity);
+    if (supportedMessageOperations.contains(DocumentOperationType.UPDATE)) {
+      triggerEvent(persisted, DocumentOperationType.UPDATE);
+    }
+    return persisted;
+  }
+
   @Override
   public void delete(E entity) {
     delete(entity, supportedMessageOperations.contains(DocumentOperationType.DELETE));
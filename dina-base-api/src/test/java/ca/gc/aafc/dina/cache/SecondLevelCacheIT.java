@@ -0,0 +1,72 @@
+package ca.gc.aafc.dina.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.util.UUID;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.transaction.Transactional;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ContextConfiguration;
+
+import ca.gc.aafc.dina.TestDinaBaseApp;
+import ca.gc.aafc.dina.entity.DepartmentType;
+import ca.gc.aafc.dina.jpa.BaseDAO;
+import ca.gc.aafc.dina.testsupport.PostgresTestContainerInitializer;
+
+@Transactional
+@SpringBootTest(classes = TestDinaBaseApp.class,
+  properties = {"dina.second-level-cache.enabled = true",
+    "dina.second-level-cache.regions.[ca.gc.aafc.dina.entity.DepartmentType].maximum-size = 10"})
+@ContextConfiguration(initializers = { PostgresTestContainerInitializer.class })
+public class SecondLevelCacheIT {
+
+  @Inject
+  private BaseDAO baseDAO;
+
+  @Inject
+  private EntityManagerFactory entityManagerFactory;
+
+  @Inject
+  private MeterRegistry meterRegistry;
+
+  @AfterEach
+  public void cleanup() {
+    entityManagerFactory.getCache().evictAll();
+  }
+
+  @Test
+  public void findOneByNaturalId_onCachedEntity_secondLevelCacheUsed() {
+    DepartmentType depType = DepartmentType.builder().uuid(UUID.randomUUID()).name("type1").build();
+    baseDAO.create(depType, true);
+    baseDAO.clear();
+
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    long naturalIdHits = statistics.getNaturalIdStatistics(DepartmentType.class.getName()).getCacheHitCount();
+    long entityHits = statistics.getDomainDataRegionStatistics(DepartmentType.class.getName()).getHitCount();
+
+    // first load puts the entity and its natural id in the cache
+    assertEquals("type1", baseDAO.findOneByNaturalId(depType.getUuid(), DepartmentType.class).getName());
+    baseDAO.clear();
+
+    // then, loaded from the cache
+    assertEquals("type1", baseDAO.findOneByNaturalId(depType.getUuid(), DepartmentType.class, null).getName());
+    assertEquals(naturalIdHits + 1,
+      statistics.getNaturalIdStatistics(DepartmentType.class.getName()).getCacheHitCount());
+    assertEquals(entityHits + 1,
+      statistics.getDomainDataRegionStatistics(DepartmentType.class.getName()).getHitCount());
+
+    assertNotNull(meterRegistry.find("hibernate.second.level.cache.requests")
+      .tag("region", DepartmentType.class.getName())
+      .tag("result", "hit")
+      .functionCounter());
+  }
+}
@@ -170,16 +170,16 @@ public class PersonTestConfig {
     @PostMapping(path = PATH)
     @Transactional
     public ResponseEntity<RepresentationModel<?>> onCreate(
-      @RequestBody JsonApiDocument postedDocument) {
-      return handleCreate(postedDocument, null);
+      @RequestBody JsonApiDocument postedDocument, HttpServletRequest req) {
+      return handleCreate(postedDocument, null, req);
     }
 
     @PatchMapping(PATH + "/{id}")
     @Transactional
     public ResponseEntity<RepresentationModel<?>> onUpdate(
       @RequestBody JsonApiDocument partialPatchDto,
-      @PathVariable UUID id) throws ResourceNotFoundException, ResourceGoneException {
-      return handleUpdate(partialPatchDto, id);
+      @PathVariable UUID id, HttpServletRequest req) throws ResourceNotFoundException, ResourceGoneException {
+      return handleUpdate(partialPatchDto, id, req);
     }
 
     @PatchMapping(path = PATH + "/" + DinaRepositoryV2.JSON_API_BULK_PATH, consumes = JSON_API_BULK)
@@ -0,0 +1,84 @@
+package ca.gc.aafc.dina.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class ReadReplicaRoutingDataSourceTest {
+
+  private final Connection primaryConnection = Mockito.mock(Connection.class);
+  private final Connection replicaConnection = Mockito.mock(Connection.class);
+
+  @AfterEach
+  public void cleanup() {
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+  }
+
+  @Test
+  public void getConnection_onReadOnlyTransaction_replicaUsed() throws SQLException {
+    ReadReplicaRoutingDataSource routingDataSource = new ReadReplicaRoutingDataSource(
+      mockDataSource(primaryConnection), List.of(mockDataSource(replicaConnection)), Duration.ofSeconds(10));
+
+    assertSame(primaryConnection, routingDataSource.getConnection());
+
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    assertSame(replicaConnection, routingDataSource.getConnection());
+  }
+
+  @Test
+  public void getConnection_onReplicaLagging_primaryUsed() throws SQLException {
+    mockLag(replicaConnection, 30);
+    ReadReplicaRoutingDataSource routingDataSource = new ReadReplicaRoutingDataSource(
+      mockDataSource(primaryConnection), List.of(mockDataSource(replicaConnection)), Duration.ofSeconds(10));
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+    routingDataSource.checkReplicaLag();
+    assertEquals(0, routingDataSource.getAvailableReplicaCount());
+    assertSame(primaryConnection, routingDataSource.getConnection());
+
+    // replica caught up
+    mockLag(replicaConnection, 1);
+    routingDataSource.checkReplicaLag();
+    assertEquals(1, routingDataSource.getAvailableReplicaCount());
+    assertSame(replicaConnection, routingDataSource.getConnection());
+  }
+
+  @Test
+  public void getConnection_onReplicaDown_primaryUsed() throws SQLException {
+    DataSource replica = Mockito.mock(DataSource.class);
+    Mockito.when(replica.getConnection()).thenThrow(new SQLException("replica down"));
+    ReadReplicaRoutingDataSource routingDataSource = new ReadReplicaRoutingDataSource(
+      mockDataSource(primaryConnection), List.of(replica), Duration.ofSeconds(10));
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+    assertSame(primaryConnection, routingDataSource.getConnection());
+    assertEquals(0, routingDataSource.getAvailableReplicaCount());
+  }
+
+  private static DataSource mockDataSource(Connection connection) throws SQLException {
+    DataSource dataSource = Mockito.mock(DataSource.class);
+    Mockito.when(dataSource.getConnection()).thenReturn(connection);
+    return dataSource;
+  }
+
+  private static void mockLag(Connection connection, double lagSeconds) throws SQLException {
+    Statement statement = Mockito.mock(Statement.class);
+    ResultSet rs = Mockito.mock(ResultSet.class);
+    Mockito.when(connection.createStatement()).thenReturn(statement);
+    Mockito.when(statement.executeQuery(ReadReplicaRoutingDataSource.REPLICA_LAG_SQL)).thenReturn(rs);
+    Mockito.when(rs.next()).thenReturn(true);
+    Mockito.when(rs.getDouble(1)).thenReturn(lagSeconds);
+  }
+}
@@ -0,0 +1,83 @@
+package ca.gc.aafc.dina.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import jakarta.inject.Inject;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import ca.gc.aafc.dina.TestDinaBaseApp;
+import ca.gc.aafc.dina.jpa.BaseDAO;
+import ca.gc.aafc.dina.testsupport.PostgresTestContainerInitializer;
+
+/**
+ * The replica is a second Postgres instance using a different database name so we can tell
+ * which server answered the query.
+ */
+@SpringBootTest(classes = TestDinaBaseApp.class,
+  properties = "dina.datasource.read-replica.enabled = true")
+@ContextConfiguration(initializers = { PostgresTestContainerInitializer.class })
+public class ReadReplicaRoutingIT {
+
+  private static final String PRIMARY_DATABASE_NAME = "dina_test";
+  private static final String REPLICA_DATABASE_NAME = "dina_replica";
+
+  private static final String CURRENT_DATABASE_SQL = "SELECT current_database()";
+
+  public static final PostgreSQLContainer<?> replicaContainer =
+    new PostgreSQLContainer<>("postgis/postgis:12-2.5-alpine")
+      .withDatabaseName(REPLICA_DATABASE_NAME)
+      .withUsername("web_user")
+      .withPassword("test");
+
+  @Inject
+  private BaseDAO baseDAO;
+
+  @Inject
+  private PlatformTransactionManager transactionManager;
+
+  @Inject
+  private ReadReplicaRoutingDataSource routingDataSource;
+
+  @BeforeAll
+  static void beforeAll() {
+    replicaContainer.start();
+  }
+
+  @AfterAll
+  static void afterAll() {
+    replicaContainer.stop();
+  }
+
+  @DynamicPropertySource
+  static void registerReplicaProperties(DynamicPropertyRegistry registry) {
+    registry.add("dina.datasource.read-replica.replicas[0].url", replicaContainer::getJdbcUrl);
+  }
+
+  @Test
+  public void readOnlyTransaction_onReplicaAvailable_routedToReplica() {
+    routingDataSource.checkReplicaLag();
+    assertEquals(1, routingDataSource.getAvailableReplicaCount());
+
+    TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+    transactionTemplate.setReadOnly(true);
+    assertEquals(REPLICA_DATABASE_NAME, transactionTemplate.execute(status -> getCurrentDatabase()));
+
+    transactionTemplate.setReadOnly(false);
+    assertEquals(PRIMARY_DATABASE_NAME, transactionTemplate.execute(status -> getCurrentDatabase()));
+  }
+
+  private String getCurrentDatabase() {
+    return baseDAO.createWithEntityManager(
+      em -> (String) em.createNativeQuery(CURRENT_DATABASE_SQL).getSingleResult());
+  }
+}
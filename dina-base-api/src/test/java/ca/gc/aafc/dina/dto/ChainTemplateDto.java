@@ -7,13 +7,14 @@ import lombok.Data;
 import java.time.OffsetDateTime;
 import java.util.UUID;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.toedter.spring.hateoas.jsonapi.JsonApiId;
 import com.toedter.spring.hateoas.jsonapi.JsonApiTypeForClass;
 
 @Data
 @JsonApiTypeForClass(ChainTemplateDto.TYPENAME)
 @RelatedEntity(ChainTemplate.class)
-public class ChainTemplateDto {
+public class ChainTemplateDto implements JsonApiResource {
 
   public static final String TYPENAME = "chainTemplate";
 
@@ -26,5 +27,16 @@ public class ChainTemplateDto {
   private String group;
   
   private String name;
-  
+
+  @Override
+  @JsonIgnore
+  public String getJsonApiType() {
+    return TYPENAME;
+  }
+
+  @Override
+  @JsonIgnore
+  public UUID getJsonApiId() {
+    return uuid;
+  }
 }
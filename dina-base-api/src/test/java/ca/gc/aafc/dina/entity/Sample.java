@@ -0,0 +1,39 @@
+package ca.gc.aafc.dina.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.NaturalId;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Entity using a sequence for its id so inserts can be batched by Hibernate (unlike IDENTITY).
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Sample implements DinaEntity {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sample_id_seq")
+  @SequenceGenerator(name = "sample_id_seq", sequenceName = "sample_id_seq", allocationSize = 1)
+  private Integer id;
+  @NaturalId
+  private UUID uuid;
+
+  private String name;
+
+  private String createdBy;
+  private OffsetDateTime createdOn;
+
+}
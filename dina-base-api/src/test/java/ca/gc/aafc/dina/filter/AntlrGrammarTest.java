@@ -1,5 +1,6 @@
 package ca.gc.aafc.dina.filter;
 
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
@@ -8,6 +9,7 @@ import com.querydsl.core.types.Ops;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -62,6 +64,29 @@ public class AntlrGrammarTest {
     assertEquals("filter", fEx.value());
   }
 
+  @Test
+  public void onKeywordValue_structureReturned() {
+    String content = "filter[name][EQ]=after&filter[type][EQ]=SIMILAR&filter[size][NEQ]=limit";
+
+    QueryComponent queryComponent = QueryStringParser.parse(content);
+    List<FilterExpression> expressions = ((FilterGroup) queryComponent.getFilters()).getComponents().stream()
+      .map(FilterExpression.class::cast).toList();
+    assertEquals("after", expressions.get(0).value());
+    assertEquals("SIMILAR", expressions.get(1).value());
+    assertEquals("limit", expressions.get(2).value());
+  }
+
+  @Test
+  public void onSimilarFilter_textSearchExpressionReturned() {
+    String content = "filter[name][SIMILAR]=jonathan doe";
+
+    QueryComponent queryComponent = QueryStringParser.parse(content);
+    TextSearchFilterExpression tsEx = (TextSearchFilterExpression) queryComponent.getFilters();
+    assertEquals("name", tsEx.attribute());
+    assertEquals(TextSearchOps.SIMILAR, tsEx.operator());
+    assertEquals("jonathan doe", tsEx.value());
+  }
+
   @Test
   public void onFilterAsString_structureReturned() {
     String content =
@@ -111,6 +136,27 @@ public class AntlrGrammarTest {
     assertEquals(1, queryComponent.getPageLimit());
   }
 
+  @Test
+  public void onPageAfter_cursorReturned() {
+    // values that would be problematic in a query string or contain other keywords
+    List<String> values = List.of("page[offset]=5,\"limit\"", "2024-01-01T10:00:00Z", "12");
+    String cursor = PageCursor.encode(values);
+    String content = "sort=-name&page[after]=" + cursor + "&page[limit]=10";
+
+    QueryComponent queryComponent = QueryStringParser.parse(content);
+
+    assertEquals(cursor, queryComponent.getPageAfter());
+    assertEquals(10, queryComponent.getPageLimit());
+    assertNull(queryComponent.getPageOffset());
+    assertEquals(values, PageCursor.decode(queryComponent.getPageAfter()));
+
+    assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("abc"));
+
+    // null and empty values are kept apart
+    List<String> nullValues = Arrays.asList(null, "", "12");
+    assertEquals(nullValues, PageCursor.decode(PageCursor.encode(nullValues)));
+  }
+
   @Test
   public void onEqWithList_structureReturned() {
     String content = "filter[name][EQ]=e1,e2";
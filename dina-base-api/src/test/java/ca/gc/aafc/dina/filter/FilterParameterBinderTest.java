@@ -0,0 +1,76 @@
+package ca.gc.aafc.dina.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.querydsl.core.types.Ops;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FilterParameterBinderTest {
+
+  @Test
+  public void toShape_sameShapeDifferentValues_sameShape() {
+    QueryComponent qc1 = QueryStringParser.parse("filter[group][EQ]=aafc&filter[name][LIKE]=abc%");
+    QueryComponent qc2 = QueryStringParser.parse("filter[group][EQ]=cnc&filter[name][LIKE]=xyz%");
+
+    assertEquals(FilterParameterBinder.toShape(qc1.getFilters()),
+      FilterParameterBinder.toShape(qc2.getFilters()));
+    assertEquals(FilterParameterBinder.toShape(qc1.getFilters()).hashCode(),
+      FilterParameterBinder.toShape(qc2.getFilters()).hashCode());
+  }
+
+  @Test
+  public void toShape_differentOperatorOrNullValue_differentShape() {
+    FilterComponent fc = new FilterExpression("name", Ops.EQ, "abc");
+
+    assertNotEquals(FilterParameterBinder.toShape(fc),
+      FilterParameterBinder.toShape(new FilterExpression("name", Ops.NE, "abc")));
+    assertNotEquals(FilterParameterBinder.toShape(fc),
+      FilterParameterBinder.toShape(new FilterExpression("name", Ops.EQ, null)));
+    assertNotEquals(FilterParameterBinder.toShape(fc),
+      FilterParameterBinder.toShape(new FilterExpression("group", Ops.EQ, "abc")));
+  }
+
+  @Test
+  public void toShape_blankValue_differentShape() {
+    FilterComponent fc = new FilterExpression("name", Ops.IN, "abc,xyz");
+
+    assertNotEquals(FilterParameterBinder.toShape(fc),
+      FilterParameterBinder.toShape(new FilterExpression("name", Ops.IN, "")));
+    assertNotEquals(FilterParameterBinder.toShape(fc),
+      FilterParameterBinder.toShape(new FilterExpression("name", Ops.IN, "  ")));
+    assertEquals(FilterParameterBinder.toShape(new FilterExpression("name", Ops.IN, "")),
+      FilterParameterBinder.toShape(new FilterExpression("name", Ops.IN, "  ")));
+  }
+
+  @Test
+  public void extractValues_nestedGroups_depthFirstOrder() {
+    FilterComponent fc = FilterGroup.builder()
+      .conjunction(FilterGroup.Conjunction.AND)
+      .component(new FilterExpression("a", Ops.EQ, "1"))
+      .component(FilterGroup.builder()
+        .conjunction(FilterGroup.Conjunction.OR)
+        .component(new FilterExpression("b", Ops.EQ, "2"))
+        .component(new FilterExpression("c", Ops.EQ, null))
+        .build())
+      .component(new FilterExpression("d", Ops.EQ, "4"))
+      .build();
+
+    assertEquals(Arrays.asList("1", "2", null, "4"), FilterParameterBinder.extractValues(fc));
+    assertTrue(FilterParameterBinder.extractValues(null).isEmpty());
+  }
+
+  @Test
+  public void resolve_wrongNumberOfValues_exception() {
+    FilterParameterBinder binder = new FilterParameterBinder();
+    binder.nextValue();
+    assertThrows(IllegalArgumentException.class, () -> binder.resolve(List.of("1", "2")));
+    assertTrue(binder.resolve(List.of("1")).isEmpty());
+  }
+}
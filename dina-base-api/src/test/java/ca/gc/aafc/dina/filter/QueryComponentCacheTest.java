@@ -0,0 +1,69 @@
+package ca.gc.aafc.dina.filter;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.querydsl.core.types.Ops;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class QueryComponentCacheTest {
+
+  private static final String QUERY_STRING = "filter[name][EQ]=e1&sort=-name&fields[person]=name&include=department";
+
+  @Test
+  public void get_onSameQueryString_sameInstanceReturned() {
+    QueryComponentCache cache = new QueryComponentCache(10, Duration.ofMinutes(1), 2048);
+    QueryComponent qc = QueryStringParser.parse(QUERY_STRING, cache);
+    assertSame(qc, QueryStringParser.parse(QUERY_STRING, cache));
+    assertEquals(1, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+
+    // shared instances can't be modified
+    assertThrows(UnsupportedOperationException.class, () -> qc.getSorts().add("name"));
+    assertThrows(UnsupportedOperationException.class, () -> qc.getFields().get("person").add("room"));
+  }
+
+  @Test
+  public void get_onExpiredOrEvictedEntry_queryStringParsedAgain() {
+    AtomicLong nanoTime = new AtomicLong();
+    QueryComponentCache cache = new QueryComponentCache(1, Duration.ofSeconds(10), 2048, nanoTime::get);
+
+    QueryComponent qc = cache.get(QUERY_STRING, QueryStringParser::parse);
+    nanoTime.addAndGet(Duration.ofSeconds(11).toNanos());
+    assertNotSame(qc, cache.get(QUERY_STRING, QueryStringParser::parse));
+
+    // only 1 entry can be kept
+    cache.get("sort=name", QueryStringParser::parse);
+    assertEquals(0, cache.getHitCount());
+    assertEquals(3, cache.getMissCount());
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  public void get_onLongQueryString_notCached() {
+    QueryComponentCache cache = new QueryComponentCache(10, Duration.ofMinutes(1), 10);
+    cache.get(QUERY_STRING, QueryStringParser::parse);
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void mutate_onCachedQueryComponent_cachedInstanceUnchanged() {
+    QueryComponentCache cache = new QueryComponentCache(10, Duration.ofMinutes(1), 2048);
+    QueryComponent qc = cache.get(QUERY_STRING, QueryStringParser::parse);
+
+    QueryComponent mutated = FilterComponentMutator.mutate(qc,
+      c -> c instanceof FilterExpression fe && "name".equals(fe.attribute()),
+      c -> new FilterExpression("name", Ops.EQ, "e2"));
+
+    assertNotSame(qc, mutated);
+    assertEquals("e2", mutated.getFilterExpression().orElseThrow().value());
+    assertSame(qc, cache.get(QUERY_STRING, QueryStringParser::parse));
+    assertEquals("e1", qc.getFilterExpression().orElseThrow().value());
+  }
+}
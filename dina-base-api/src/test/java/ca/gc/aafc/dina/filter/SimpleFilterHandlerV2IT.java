@@ -18,15 +18,20 @@ import ca.gc.aafc.dina.repository.DinaRepositoryV2IT;
 import ca.gc.aafc.dina.testsupport.factories.TestableEntityFactory;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
 import jakarta.transaction.Transactional;
 
 @SpringBootTest(classes = {TestDinaBaseApp.class, DinaRepositoryV2IT.RepoV2TestConfig.class,
@@ -87,6 +92,35 @@ public class SimpleFilterHandlerV2IT extends BasePostgresItContext {
   }
 
 
+  @Test
+  public void searchEmployees_whenUuidFilterIsLargeIn_filteredEmployeesAreReturned() {
+    Person emp1 = Person.builder().uuid(UUID.randomUUID()).name("e1").build();
+    Person emp2 = Person.builder().uuid(UUID.randomUUID()).name("e2").build();
+    Person emp3 = Person.builder().uuid(UUID.randomUUID()).name("e3").build();
+
+    for (Person newPerson : Arrays.asList(emp1, emp2, emp3)) {
+      entityManager.persist(newPerson);
+    }
+
+    // more values than the threshold so the values are sent as a single array parameter
+    List<String> uuids = new ArrayList<>();
+    uuids.add(emp1.getUuid().toString());
+    uuids.add(emp3.getUuid().toString());
+    for (int i = 0; i < SimpleFilterHandlerV2.IN_LIST_ARRAY_THRESHOLD; i++) {
+      uuids.add(UUID.randomUUID().toString());
+    }
+
+    QueryComponent qc = QueryComponent.builder()
+      .filters(new FilterExpression("uuid", Ops.IN, String.join(",", uuids)))
+      .sorts(List.of("name"))
+      .build();
+
+    var personDtos = this.personRepository.getAll(qc);
+    assertEquals(List.of("e1", "e3"),
+      personDtos.resourceList().stream().map( m -> m.getDto().getName()).collect(Collectors.toList())
+    );
+  }
+
   @Test
   public void searchEmployees_whenNameFilterIsEqList_filteredEmployeesAreReturned() {
     Person emp1 = Person.builder().uuid(UUID.randomUUID()).name("e1").build();
@@ -136,6 +170,31 @@ public class SimpleFilterHandlerV2IT extends BasePostgresItContext {
     );
   }
 
+  @Test
+  public void createPredicate_onSameAttributePath_resolvedPathCached() {
+    SimpleFilterHandlerV2.clearResolvedPathCache();
+
+    FilterExpression fex = new FilterExpression("data.attributes.department.name", Ops.EQ, "d1");
+    for (int i = 0; i < 2; i++) {
+      CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+      CriteriaQuery<Person> criteria = cb.createQuery(Person.class);
+      Root<Person> root = criteria.from(Person.class);
+      assertNotNull(SimpleFilterHandlerV2.createPredicate(root, cb, (v, c) -> v,
+        entityManager.getMetamodel(), fex));
+      assertEquals(1, SimpleFilterHandlerV2.getResolvedPathCacheSize());
+    }
+
+    // unknown attributes are not cached
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    Root<Person> root = cb.createQuery(Person.class).from(Person.class);
+    assertThrows(UnknownAttributeException.class, () -> SimpleFilterHandlerV2.createPredicate(root, cb,
+      (v, c) -> v, entityManager.getMetamodel(), new FilterExpression("department.abc", Ops.EQ, "d1")));
+    assertEquals(1, SimpleFilterHandlerV2.getResolvedPathCacheSize());
+
+    SimpleFilterHandlerV2.clearResolvedPathCache();
+    assertEquals(0, SimpleFilterHandlerV2.getResolvedPathCacheSize());
+  }
+
   @Test
   public void searchEmployees_unknownSort_exception() {
     String sortQuery = "sort=abc";
@@ -169,6 +228,27 @@ public class SimpleFilterHandlerV2IT extends BasePostgresItContext {
     );
   }
 
+  /**
+   * Trigram similarity (pg_trgm)
+   */
+  @Test
+  public void searchEmployees_whenNameFilterIsSimilar_similarEmployeesAreReturned() {
+    Person emp1 = Person.builder().uuid(UUID.randomUUID()).name("Jonathan Doe").build();
+    Person emp2 = Person.builder().uuid(UUID.randomUUID()).name("Johnathan Doe").build();
+    Person emp3 = Person.builder().uuid(UUID.randomUUID()).name("Alice Martin").build();
+
+    for (Person newPerson : Arrays.asList(emp1, emp2, emp3)) {
+      entityManager.persist(newPerson);
+    }
+
+    QueryComponent qc = QueryStringParser.parse("filter[name][SIMILAR]=jonathan doe&sort=name");
+
+    var personDtos = this.personRepository.getAll(qc);
+    assertEquals(List.of("Johnathan Doe", "Jonathan Doe"),
+      personDtos.resourceList().stream().map( m -> m.getDto().getName()).collect(Collectors.toList())
+    );
+  }
+
   @Test
   public void getRestriction_EqualsNull_FiltersOnEqualsNull() {
     Person hasCreatedBy = Person.builder().uuid(UUID.randomUUID()).name(
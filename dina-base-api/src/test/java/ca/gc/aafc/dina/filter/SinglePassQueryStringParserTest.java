@@ -0,0 +1,156 @@
+package ca.gc.aafc.dina.filter;
+
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Differential tests between {@link SinglePassQueryStringParser} and the ANTLR based reference implementation.
+ */
+public class SinglePassQueryStringParserTest {
+
+  private static final List<String> VALID_QUERY_STRINGS = List.of(
+    "filter[type][EQ]=metadata&filter[name][EQ]=drawing.png&filter[group][EQ]=test",
+    "filter[type][EQ]=metadata&filter[name][EQ]=drawing.png&fields[metadata]=name,type",
+    "filter[type][EQ]=metadata&optfields[my-metadata]=md5&optfields[my-metadata]=sha1",
+    "filter[extension.fields.dinaComponent]=filter",
+    "filter[name][EQ]=2&filter[position][NEQ]=manager,supervisor&sort=position,-name&page[offset]=5&page[limit]=1&include=author.name",
+    "filter[createdBy.name][EQ]=John Doe&filter[createdBy.age][GT]=30&filter[updatedBy.name][NEQ]=Jane&" +
+      "filter[position][LT]=5&sort=position,-name&page[limit]=10&page[offset]=20&include=author._name,author.age",
+    "sort=position,-name&page[offset]=5&page[limit]=1&include=author.name",
+    "sort=-name&page[after]=" + PageCursor.encode(List.of("page[offset]=5,\"limit\"", "12")) + "&page[limit]=10",
+    "filter[name][EQ]=e1,e2",
+    "filter[name][LIKE]=%abc%&filter[name][ILIKE]=%ABC%&filter[room][GOE]=1&filter[room][LOE]=3",
+    "filter[name][SIMILAR]=jonathan doe&sort=name",
+    "filter[name][EQ]=after&filter[type][SIMILAR]=SIMILAR&filter[size]=limit,offset,IN",
+    "filter[name][IN]=\"a,b\",\"c\"&filter[path]=/a/b:c",
+    "filter[name]=éüßãâä&filter[_private1]=x_y-z",
+    "fiql=updated=lt=2005-01-01T00:00:00Z,updated=lt=2005-01-03T00:00:00Z&sort=title",
+    "fiql=(email==*test*;displayName==*user 1*),displayName==test user 2",
+    "fiql=email!=test&fiql=name==*éüßãâä*",
+    "fields[person]=name,room&fields[person]=department&fields[department]=name",
+    "include=department&include=department.departmentHead,organization",
+    "include=author",
+    "sort=name&sort=-createdOn&page[offset]=007"
+  );
+
+  private static final List<String> INVALID_QUERY_STRINGS = List.of(
+    "filter[name]=",
+    "filter[name]=a&",
+    "filter[sort]=a",
+    "filter[name][XYZ]=a",
+    "filter[name]=\"unclosed",
+    "filter[name]=a+b",
+    "filter[name]=a\tb",
+    "fields[page]=name",
+    "page[size]=10",
+    "page[limit]=abc",
+    "include=",
+    "include=a,,b",
+    "sort=--name",
+    "unknown=1",
+    "sort=name]garbage",
+    "&sort=name"
+  );
+
+  @Test
+  public void parse_onValidQueryString_sameAsAntlr() {
+    for (String queryString : VALID_QUERY_STRINGS) {
+      assertNotNull(SinglePassQueryStringParser.parse(queryString), queryString);
+      assertSameQueryComponent(queryString);
+    }
+  }
+
+  @Test
+  public void parse_onInvalidQueryString_handledByAntlr() {
+    for (String queryString : INVALID_QUERY_STRINGS) {
+      assertNull(SinglePassQueryStringParser.parse(queryString), queryString);
+      assertSameQueryComponent(queryString);
+    }
+  }
+
+  @Test
+  public void parse_onInvalidPageValue_exceptionThrown() {
+    String queryString = "filter[name]=aafc&page[limit]=99999999999999999999";
+    assertThrows(IllegalArgumentException.class, () -> SinglePassQueryStringParser.parse(queryString));
+    assertThrows(IllegalArgumentException.class, () -> QueryStringParser.parseWithAntlr(queryString));
+  }
+
+  @Test
+  public void parse_onGeneratedQueryStrings_sameAsAntlr() {
+    List<String> fragments = List.of("filter", "fields", "optfields", "fiql", "sort", "page", "include",
+      "limit", "offset", "after", "EQ", "NEQ", "IN", "LIKE", "SIMILAR", "name", "room", "a", "_", "1", "42",
+      "[", "]", "=", "==", ",", ";", "&", "-", ".", "%", "*", "!", "(", ")", " ", "/", ":", "\"", "é", "+");
+    Random random = new Random(42);
+    for (int i = 0; i < 20000; i++) {
+      StringBuilder queryString = new StringBuilder();
+      int length = 1 + random.nextInt(12);
+      for (int j = 0; j < length; j++) {
+        queryString.append(fragments.get(random.nextInt(fragments.size())));
+      }
+      assertSameQueryComponent(queryString.toString());
+    }
+
+    // mutations of valid query strings
+    for (String validQueryString : VALID_QUERY_STRINGS) {
+      for (int i = 0; i < 200; i++) {
+        StringBuilder queryString = new StringBuilder(validQueryString);
+        int position = random.nextInt(queryString.length());
+        if (random.nextBoolean()) {
+          queryString.deleteCharAt(position);
+        } else {
+          queryString.insert(position, fragments.get(random.nextInt(fragments.size())));
+        }
+        assertSameQueryComponent(queryString.toString());
+      }
+    }
+  }
+
+  private static void assertSameQueryComponent(String queryString) {
+    // blank query strings are not parsed
+    if (StringUtils.isBlank(queryString)) {
+      return;
+    }
+
+    QueryComponent expected;
+    try {
+      expected = QueryStringParser.parseWithAntlr(queryString);
+    } catch (RuntimeException rEx) {
+      // the ANTLR listener can also fail on some syntax errors
+      assertThrows(rEx.getClass(), () -> QueryStringParser.parse(queryString), queryString);
+      return;
+    }
+
+    QueryComponent actual = QueryStringParser.parse(queryString);
+    assertSameFilter(expected.getFilters(), actual.getFilters(), queryString);
+    assertEquals(expected.getFiql(), actual.getFiql(), queryString);
+    assertEquals(expected.getIncludes(), actual.getIncludes(), queryString);
+    assertEquals(expected.getSorts(), actual.getSorts(), queryString);
+    assertEquals(expected.getFields(), actual.getFields(), queryString);
+    assertEquals(expected.getOptionalFields(), actual.getOptionalFields(), queryString);
+    assertEquals(expected.getPageOffset(), actual.getPageOffset(), queryString);
+    assertEquals(expected.getPageLimit(), actual.getPageLimit(), queryString);
+    assertEquals(expected.getPageAfter(), actual.getPageAfter(), queryString);
+  }
+
+  private static void assertSameFilter(FilterComponent expected, FilterComponent actual, String queryString) {
+    if (expected instanceof FilterGroup expectedGroup) {
+      FilterGroup actualGroup = assertInstanceOf(FilterGroup.class, actual, queryString);
+      assertEquals(expectedGroup.getConjunction(), actualGroup.getConjunction(), queryString);
+      assertEquals(expectedGroup.getComponents().size(), actualGroup.getComponents().size(), queryString);
+      for (int i = 0; i < expectedGroup.getComponents().size(); i++) {
+        assertSameFilter(expectedGroup.getComponents().get(i), actualGroup.getComponents().get(i), queryString);
+      }
+    } else {
+      assertEquals(expected, actual, queryString);
+    }
+  }
+}
@@ -4,7 +4,9 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.List;
@@ -20,8 +22,11 @@ import jakarta.persistence.criteria.Root;
 import jakarta.transaction.Transactional;
 
 import ca.gc.aafc.dina.BasePostgresItContext;
+import ca.gc.aafc.dina.entity.ChainTemplate;
+import ca.gc.aafc.dina.entity.ComplexObject;
 import ca.gc.aafc.dina.entity.Employee;
 import ca.gc.aafc.dina.entity.Person;
+import ca.gc.aafc.dina.entity.Sample;
 import ca.gc.aafc.dina.testsupport.DatabaseSupportService;
 import ca.gc.aafc.dina.testsupport.factories.TestableEntityFactory;
 import org.apache.commons.lang3.RandomStringUtils;
@@ -53,6 +58,14 @@ public class BaseDAOIT extends BasePostgresItContext {
     assertEquals("uuid", baseDAO.getNaturalIdFieldName(Department3.class));
   }
 
+  @Test
+  public void hasDatabaseGeneratedValues_onCallWithEntityClass_returnExpectedValue() {
+    // createdOn is mapped as not insertable and not updatable
+    assertTrue(baseDAO.hasDatabaseGeneratedValues(ChainTemplate.class));
+    // only the natural id is not updatable
+    assertFalse(baseDAO.hasDatabaseGeneratedValues(Sample.class));
+  }
+
   static class Department2 extends Department {}
 
   static class Department3 {
@@ -78,6 +91,33 @@ public class BaseDAOIT extends BasePostgresItContext {
     assertNotNull(baseDAO.findOneByNaturalId(generatedUUID, Department.class));
   }
   
+  @Test
+  public void findAllByNaturalIdsOrdered_onMultipleIds_returnsEntitiesInOrder() {
+    Department dep1 = Department.builder().name("dep1").uuid(UUID.randomUUID()).location("dep location").build();
+    Department dep2 = Department.builder().name("dep2").uuid(UUID.randomUUID()).location("dep location").build();
+    Department dep3 = Department.builder().name("dep3").uuid(UUID.randomUUID()).location("dep location").build();
+    baseDAO.create(dep1);
+    baseDAO.create(dep2);
+    baseDAO.create(dep3);
+    baseDAO.flush();
+    baseDAO.clear();
+
+    UUID unknown = UUID.randomUUID();
+    // batch size of 2 to use more than one batch
+    List<Department> found = baseDAO.findAllByNaturalIdsOrdered(Department.class,
+      List.of(dep3.getUuid(), unknown, dep1.getUuid(), dep2.getUuid()), 2);
+
+    assertEquals(4, found.size());
+    assertEquals(dep3.getUuid(), found.get(0).getUuid());
+    assertNull(found.get(1));
+    assertEquals(dep1.getUuid(), found.get(2).getUuid());
+    assertEquals(dep2.getUuid(), found.get(3).getUuid());
+
+    assertTrue(baseDAO.existsByNaturalIds(Department.class,
+      List.of(dep1.getUuid(), dep2.getUuid(), dep3.getUuid(), dep1.getUuid()), 2));
+    assertFalse(baseDAO.existsByNaturalIds(Department.class, List.of(dep1.getUuid(), unknown)));
+  }
+
   @Test
   public void findOneByProperty_onValidProperty_returnsEntity() {
     
@@ -193,6 +233,41 @@ public class BaseDAOIT extends BasePostgresItContext {
     assertEquals(expectedLocation, result.getLocation());
   }
 
+  @Test
+  public void update_OnManagedOrDetachedEntity_ManagedInstanceReturned() {
+    Department dep = Department.builder().name("dep1").uuid(UUID.randomUUID()).location("dep location").build();
+    baseDAO.create(dep, true);
+
+    // already managed, no merge required
+    assertSame(dep, baseDAO.update(dep, false));
+
+    baseDAO.detach(dep);
+    dep.setName("dep2");
+    Department merged = baseDAO.update(dep, true);
+    assertNotSame(dep, merged);
+    assertEquals("dep2", merged.getName());
+  }
+
+  @Test
+  public void update_OnManagedEntityWithDetachedCascadedAssociation_AssociationMerged() {
+    ComplexObject customField = ComplexObject.builder().name("field1").uuid(UUID.randomUUID()).build();
+    Employee emp = Employee.builder()
+      .name(RandomStringUtils.randomAlphabetic(6))
+      .uuid(UUID.randomUUID())
+      .customField(customField)
+      .build();
+    baseDAO.create(emp, true);
+
+    // the employee is still managed but the cascaded association is detached
+    baseDAO.detach(customField);
+    customField.setName("field2");
+    assertSame(emp, baseDAO.update(emp, true));
+
+    baseDAO.clear();
+    assertEquals("field2",
+      baseDAO.findOneByNaturalId(customField.getUuid(), ComplexObject.class).getName());
+  }
+
   // not working atm
 //  @Test
 //  public void create_InvalidEntity_ExceptionThrownWhenFlush() {
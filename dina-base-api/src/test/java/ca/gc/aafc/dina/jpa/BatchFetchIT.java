@@ -0,0 +1,105 @@
+package ca.gc.aafc.dina.jpa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.transaction.Transactional;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ContextConfiguration;
+
+import ca.gc.aafc.dina.TestDinaBaseApp;
+import ca.gc.aafc.dina.entity.Department;
+import ca.gc.aafc.dina.entity.Employee;
+import ca.gc.aafc.dina.entity.Person;
+import ca.gc.aafc.dina.testsupport.PostgresTestContainerInitializer;
+
+@Transactional
+@SpringBootTest(classes = TestDinaBaseApp.class,
+  properties = {"spring.jpa.properties.hibernate.generate_statistics = true",
+    "dina.jpa.fetch.relations.[ca.gc.aafc.dina.entity.Department.employees].subselect = true"})
+@ContextConfiguration(initializers = { PostgresTestContainerInitializer.class })
+public class BatchFetchIT {
+
+  @Inject
+  private BaseDAO baseDAO;
+
+  @Inject
+  private EntityManagerFactory entityManagerFactory;
+
+  @Test
+  public void lazyCollection_onSubselect_loadedInOneStatement() {
+    String location = RandomStringUtils.randomAlphabetic(8);
+    for (int i = 0; i < 3; i++) {
+      Department department = newDepartment(location);
+      baseDAO.create(department);
+      for (int j = 0; j < 2; j++) {
+        baseDAO.create(newEmployee(department, null));
+      }
+    }
+    baseDAO.flush();
+    baseDAO.clear();
+
+    List<Department> departments = baseDAO.findByProperty(Department.class, "location", location);
+    assertEquals(3, departments.size());
+
+    Statistics statistics = getStatistics();
+    long statementCount = statistics.getPrepareStatementCount();
+    for (Department department : departments) {
+      assertEquals(2, department.getEmployees().size());
+    }
+    assertEquals(statementCount + 1, statistics.getPrepareStatementCount());
+  }
+
+  @Test
+  public void lazyToOne_onDefaultBatchFetchSize_loadedInOneStatement() {
+    String job = RandomStringUtils.randomAlphabetic(8);
+    Department department = newDepartment(RandomStringUtils.randomAlphabetic(8));
+    baseDAO.create(department);
+
+    List<String> managerNames = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      Person manager = Person.builder().uuid(UUID.randomUUID()).name(RandomStringUtils.randomAlphabetic(8)).build();
+      baseDAO.create(manager);
+      managerNames.add(manager.getName());
+      Employee employee = newEmployee(department, manager);
+      employee.setJob(job);
+      baseDAO.create(employee);
+    }
+    baseDAO.flush();
+    baseDAO.clear();
+
+    List<Employee> employees = baseDAO.findByProperty(Employee.class, "job", job);
+    assertEquals(5, employees.size());
+
+    Statistics statistics = getStatistics();
+    long statementCount = statistics.getPrepareStatementCount();
+    for (Employee employee : employees) {
+      assertEquals(true, managerNames.contains(employee.getManager().getName()));
+    }
+    assertEquals(statementCount + 1, statistics.getPrepareStatementCount());
+  }
+
+  private Statistics getStatistics() {
+    return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+
+  private static Department newDepartment(String location) {
+    return Department.builder().uuid(UUID.randomUUID()).name(RandomStringUtils.randomAlphabetic(8))
+      .location(location).build();
+  }
+
+  private static Employee newEmployee(Department department, Person manager) {
+    return Employee.builder().uuid(UUID.randomUUID()).name(RandomStringUtils.randomAlphabetic(10))
+      .department(department).manager(manager).build();
+  }
+}
@@ -0,0 +1,37 @@
+package ca.gc.aafc.dina.jpa;
+
+import java.util.Map;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.mapping.Collection;
+import org.hibernate.mapping.PersistentClass;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+public class RelationFetchIntegratorTest {
+
+  @Test
+  public void integrate_onConfiguredRelations_mappingUpdated() {
+    FetchProperties.RelationSettings collectionSettings = new FetchProperties.RelationSettings();
+    collectionSettings.setSubselect(true);
+    FetchProperties.RelationSettings entitySettings = new FetchProperties.RelationSettings();
+    entitySettings.setBatchSize(100);
+
+    Metadata metadata = Mockito.mock(Metadata.class);
+    Collection collection = Mockito.mock(Collection.class);
+    PersistentClass owner = Mockito.mock(PersistentClass.class);
+    PersistentClass entity = Mockito.mock(PersistentClass.class);
+    Mockito.when(collection.getOwner()).thenReturn(owner);
+    Mockito.when(metadata.getCollectionBinding("a.Entity.items")).thenReturn(collection);
+    Mockito.when(metadata.getEntityBinding("a.Item")).thenReturn(entity);
+
+    new RelationFetchIntegrator(Map.of("a.Entity.items", collectionSettings, "a.Item", entitySettings,
+      "a.Unknown", entitySettings)).integrate(metadata, (BootstrapContext) null, null);
+
+    Mockito.verify(collection).setSubselectLoadable(true);
+    Mockito.verify(collection, Mockito.never()).setBatchSize(Mockito.anyInt());
+    Mockito.verify(owner).setSubselectLoadableCollections(true);
+    Mockito.verify(entity).setBatchSize(100);
+  }
+}
@@ -0,0 +1,25 @@
+package ca.gc.aafc.dina.mapper;
+
+import java.util.Set;
+
+import org.mapstruct.BeanMapping;
+import org.mapstruct.Context;
+import org.mapstruct.Mapper;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
+import org.mapstruct.factory.Mappers;
+
+import ca.gc.aafc.dina.dto.ChainTemplateDto;
+import ca.gc.aafc.dina.entity.ChainTemplate;
+
+@Mapper
+public interface ChainTemplateMapper extends DinaMapperV2<ChainTemplateDto, ChainTemplate> {
+
+  ChainTemplateMapper INSTANCE = Mappers.getMapper(ChainTemplateMapper.class);
+
+  ChainTemplateDto toDto(ChainTemplate entity, @Context Set<String> provided, @Context String scope);
+  ChainTemplate toEntity(ChainTemplateDto dto, @Context Set<String> provided, @Context String scope);
+
+  @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+  void patchEntity(@MappingTarget ChainTemplate entity, ChainTemplateDto dto, @Context Set<String> provided, @Context String scope);
+}
@@ -5,6 +5,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.info.BuildProperties;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
@@ -12,6 +13,8 @@ import org.springframework.context.annotation.Import;
 import org.springframework.hateoas.RepresentationModel;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.stereotype.Service;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
@@ -22,27 +25,38 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.context.WebApplicationContext;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.querydsl.core.types.Ops;
 import com.toedter.spring.hateoas.jsonapi.JsonApiConfiguration;
 
 import ca.gc.aafc.dina.TestDinaBaseApp;
 import ca.gc.aafc.dina.config.PersonTestConfig;
 import ca.gc.aafc.dina.dto.ApiInfoDto;
+import ca.gc.aafc.dina.dto.ChainTemplateDto;
+import ca.gc.aafc.dina.dto.DepartmentDto;
 import ca.gc.aafc.dina.dto.JsonApiDto;
 import ca.gc.aafc.dina.dto.PersonDTO;
+import ca.gc.aafc.dina.entity.ChainTemplate;
 import ca.gc.aafc.dina.entity.Department;
 import ca.gc.aafc.dina.entity.Person;
 import ca.gc.aafc.dina.exception.ResourceGoneException;
 import ca.gc.aafc.dina.exception.ResourceNotFoundException;
+import ca.gc.aafc.dina.filter.FilterExpression;
+import ca.gc.aafc.dina.filter.PageCursor;
 import ca.gc.aafc.dina.filter.QueryComponent;
 import ca.gc.aafc.dina.jpa.BaseDAO;
 import ca.gc.aafc.dina.jsonapi.JsonApiBulkDocument;
 import ca.gc.aafc.dina.jsonapi.JsonApiBulkResourceIdentifierDocument;
 import ca.gc.aafc.dina.jsonapi.JsonApiDocument;
 import ca.gc.aafc.dina.jsonapi.JsonApiDocuments;
+import ca.gc.aafc.dina.mapper.ChainTemplateMapper;
+import ca.gc.aafc.dina.mapper.PersonMapper;
+import ca.gc.aafc.dina.security.auth.AllowAllAuthorizationService;
 import ca.gc.aafc.dina.service.DefaultDinaService;
+import ca.gc.aafc.dina.service.DinaService;
 import ca.gc.aafc.dina.testsupport.PostgresTestContainerInitializer;
 import ca.gc.aafc.dina.testsupport.factories.TestableEntityFactory;
 import ca.gc.aafc.dina.testsupport.jsonapi.JsonAPITestHelper;
@@ -55,6 +69,7 @@ import static com.toedter.spring.hateoas.jsonapi.MediaTypes.JSON_API_VALUE;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
@@ -63,6 +78,8 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -70,6 +87,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import jakarta.inject.Inject;
@@ -95,6 +113,15 @@ public class DinaRepositoryV2IT {
   @Inject
   private ObjectMapper objMapper;
 
+  @Inject
+  private BuildProperties buildProperties;
+
+  @Inject
+  private BaseDAO baseDAO;
+
+  @Inject
+  private SmartValidator validator;
+
   @Autowired
   private WebApplicationContext wac;
 
@@ -208,6 +235,15 @@ public class DinaRepositoryV2IT {
 
     assertTrue(responseAsString.contains(EXPENSIVE_VALUE_TO_COMPUTE));
     assertTrue(responseAsString.contains(AUGMENTED_DATA_VALUE));
+
+    // attribute sets are cached, make sure the optional field is not returned if not requested
+    getResponse = mockMvc.perform(
+        get("/" + RepoV2TestConfig.PATH + "/" + person.getUuid())
+          .contentType(JSON_API_VALUE)
+      )
+      .andExpect(status().isOk())
+      .andReturn();
+    assertFalse(getResponse.getResponse().getContentAsString().contains(EXPENSIVE_VALUE_TO_COMPUTE));
   }
 
   @Test
@@ -260,6 +296,256 @@ public class DinaRepositoryV2IT {
     assertEquals(byRoom.size(), resultList.totalCount());
   }
 
+  @Test
+  public void findAll_pageAfter_returnNextPage() {
+
+    for (int i = 0; i < 5; i++) {
+      personService.create(Person.builder()
+        .name("keyset test name")
+        .room(i % 2)
+        .build());
+    }
+
+    FilterExpression filter = new FilterExpression("name", Ops.EQ, "keyset test name");
+    List<Integer> rooms = new ArrayList<>();
+    List<UUID> uuids = new ArrayList<>();
+
+    // go through all the pages using the cursor
+    QueryComponent qc = QueryComponent.builder()
+      .filters(filter)
+      .sorts(List.of("-room"))
+      .pageLimit(2)
+      .pageAfter(PageCursor.FIRST_PAGE)
+      .build();
+    DinaRepositoryV2.PagedResource<JsonApiDto<PersonDTO>> resultList = repositoryV2.getAll(qc);
+    while (true) {
+      resultList.resourceList().forEach(r -> {
+        rooms.add(r.getDto().getRoom());
+        uuids.add(r.getDto().getUuid());
+      });
+      assertEquals(5, resultList.totalCount());
+      if (resultList.nextPageCursor() == null) {
+        break;
+      }
+      qc = QueryComponent.builder()
+        .filters(filter)
+        .sorts(List.of("-room"))
+        .pageLimit(2)
+        .pageAfter(resultList.nextPageCursor())
+        .build();
+      resultList = repositoryV2.getAll(qc);
+    }
+
+    assertEquals(List.of(1, 1, 0, 0, 0), rooms);
+    assertEquals(5, Set.copyOf(uuids).size());
+
+    // no cursor when keyset pagination is not requested
+    resultList = repositoryV2.getAll(QueryComponent.builder()
+      .filters(filter)
+      .sorts(List.of("-room"))
+      .pageLimit(2)
+      .build());
+    assertNull(resultList.nextPageCursor());
+  }
+
+  @Test
+  public void findAll_pageAfterOnNullSortValues_returnAllPages() {
+    String name = RandomStringUtils.randomAlphabetic(10);
+    for (Integer room : Arrays.asList(1, null, 0, null, 2)) {
+      personService.create(Person.builder()
+        .name(name)
+        .room(room)
+        .build());
+    }
+
+    FilterExpression filter = new FilterExpression("name", Ops.EQ, name);
+
+    // nulls are last in ascending order and first in descending order
+    assertEquals(Arrays.asList(0, 1, 2, null, null), getAllRoomsByPage(filter, "room"));
+    assertEquals(Arrays.asList(null, null, 2, 1, 0), getAllRoomsByPage(filter, "-room"));
+  }
+
+  /**
+   * Go through all the pages (of 2 resources) using the cursor and return the rooms.
+   */
+  private List<Integer> getAllRoomsByPage(FilterExpression filter, String sort) {
+    List<Integer> rooms = new ArrayList<>();
+    String cursor = PageCursor.FIRST_PAGE;
+    while (cursor != null) {
+      DinaRepositoryV2.PagedResource<JsonApiDto<PersonDTO>> resultList = repositoryV2.getAll(
+        QueryComponent.builder()
+          .filters(filter)
+          .sorts(List.of(sort))
+          .pageLimit(2)
+          .pageAfter(cursor)
+          .build());
+      resultList.resourceList().forEach(r -> rooms.add(r.getDto().getRoom()));
+      cursor = resultList.nextPageCursor();
+    }
+    return rooms;
+  }
+
+  @Test
+  public void findAll_sameFilterShape_queryPlanReused() {
+    String name1 = RandomStringUtils.randomAlphabetic(10);
+    String name2 = RandomStringUtils.randomAlphabetic(10);
+    for (int i = 0; i < 3; i++) {
+      personService.create(Person.builder().name(name1).room(i).build());
+      personService.create(Person.builder().name(name2).room(i + 10).build());
+    }
+
+    DinaRepositoryV2<PersonDTO, Person> planCacheRepo =
+      newPersonRepository(DinaRepositoryV2.TotalCountMode.EXACT, true, false);
+
+    DinaRepositoryV2.PagedResource<JsonApiDto<PersonDTO>> resultList =
+      planCacheRepo.getAll("filter[name][EQ]=" + name1 + "&filter[room][GT]=0&sort=room");
+    assertEquals(2, resultList.totalCount());
+    assertEquals(List.of(1, 2), resultList.resourceList().stream().map(r -> r.getDto().getRoom()).toList());
+
+    long hitCount = planCacheRepo.getQueryPlanCache().getHitCount();
+
+    // same shape, different values
+    resultList = planCacheRepo.getAll("filter[name][EQ]=" + name2 + "&filter[room][GT]=10&sort=room");
+    assertEquals(2, resultList.totalCount());
+    assertEquals(List.of(11, 12), resultList.resourceList().stream().map(r -> r.getDto().getRoom()).toList());
+
+    // page query and count query
+    assertEquals(hitCount + 2, planCacheRepo.getQueryPlanCache().getHitCount());
+  }
+
+  @Test
+  public void findAll_streaming_includedDeduplicated() throws Exception {
+
+    Department department = departmentService.create(Department.builder()
+      .uuid(UUID.randomUUID())
+      .name(RandomStringUtils.randomAlphabetic(4))
+      .location(RandomStringUtils.randomAlphabetic(4))
+      .build());
+
+    for (int i = 0; i < 3; i++) {
+      personService.create(Person.builder()
+        .name("streaming test name")
+        .room(i)
+        .department(department)
+        .build());
+    }
+
+    MockHttpServletRequest req = new MockHttpServletRequest();
+    req.setQueryString("filter[name]=streaming test name&include=department&sort=room");
+    MockHttpServletResponse res = new MockHttpServletResponse();
+    repositoryV2.handleFindAllStreaming(req, res);
+
+    assertEquals(HttpStatus.OK.value(), res.getStatus());
+    JsonNode document = objMapper.readTree(res.getContentAsString());
+    assertEquals(3, document.get("data").size());
+    assertEquals(0, document.get("data").get(0).get("attributes").get("room").asInt());
+    assertEquals(1, document.get("included").size());
+    assertEquals(department.getUuid().toString(), document.get("included").get(0).get("id").asText());
+    assertEquals(3, document.get("meta").get("totalResourceCount").asInt());
+
+    // invalid query
+    req.setQueryString("include=abc");
+    res = new MockHttpServletResponse();
+    repositoryV2.handleFindAllStreaming(req, res);
+    assertEquals(HttpStatus.BAD_REQUEST.value(), res.getStatus());
+
+    // collection relationships can't be streamed
+    req.setQueryString("include=departmentsHeadBackup");
+    res = new MockHttpServletResponse();
+    repositoryV2.handleFindAllStreaming(req, res);
+    assertEquals(HttpStatus.BAD_REQUEST.value(), res.getStatus());
+  }
+
+  @Test
+  public void exportAll_allMatchingResourcesExported() throws Exception {
+
+    for (int i = 0; i < 3; i++) {
+      personService.create(Person.builder()
+        .name("export test name")
+        .room(i)
+        .build());
+    }
+
+    // pagination is ignored by the export
+    QueryComponent qc = QueryComponent.builder()
+      .filters(new FilterExpression("name", Ops.EQ, "export test name"))
+      .sorts(List.of("room"))
+      .pageLimit(1)
+      .build();
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    assertEquals(3, repositoryV2.exportAll(qc, out));
+
+    List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+    assertEquals(3, lines.size());
+    for (int i = 0; i < lines.size(); i++) {
+      JsonNode document = objMapper.readTree(lines.get(i));
+      assertEquals(i, document.get("data").get("attributes").get("room").asInt());
+    }
+  }
+
+  @Test
+  public void findAll_totalCountMode_countAsExpected() {
+
+    for (int i = 0; i < 3; i++) {
+      personService.create(Person.builder()
+        .name("count mode test name")
+        .room(i)
+        .build());
+    }
+
+    DinaRepositoryV2<PersonDTO, Person> noCountRepo =
+      newPersonRepository(DinaRepositoryV2.TotalCountMode.NONE, false, false);
+    DinaRepositoryV2<PersonDTO, Person> estimateCountRepo =
+      newPersonRepository(DinaRepositoryV2.TotalCountMode.ESTIMATE, false, false);
+
+    QueryComponent qc = QueryComponent.builder()
+      .filters(new FilterExpression("name", Ops.EQ, "count mode test name"))
+      .build();
+
+    DinaRepositoryV2.PagedResource<JsonApiDto<PersonDTO>> resultList = noCountRepo.getAll(qc);
+    assertEquals(3, resultList.resourceList().size());
+    assertNull(resultList.nullableTotalCount());
+
+    // with a filter the estimate falls back to the exact count
+    resultList = estimateCountRepo.getAll(qc);
+    assertEquals(3, resultList.totalCount());
+
+    // without filter, the estimate is returned (if available) so we can only check it's there
+    resultList = estimateCountRepo.getAll(QueryComponent.EMPTY);
+    assertNotNull(resultList.nullableTotalCount());
+  }
+
+  @Test
+  public void findAll_sparseFieldsetProjection_onlyRequestedFieldsReturned() {
+
+    for (int i = 0; i < 3; i++) {
+      personService.create(Person.builder()
+        .name("projection test name " + i)
+        .room(i)
+        .build());
+    }
+
+    DinaRepositoryV2<PersonDTO, Person> projectionRepo =
+      newPersonRepository(DinaRepositoryV2.TotalCountMode.EXACT, false, true);
+
+    QueryComponent qc = QueryComponent.builder()
+      .filters(new FilterExpression("name", Ops.LIKE, "projection test name%"))
+      .fields(Map.of("person", List.of("name")))
+      .sorts(List.of("-name"))
+      .build();
+
+    DinaRepositoryV2.PagedResource<JsonApiDto<PersonDTO>> resultList = projectionRepo.getAll(qc);
+    assertEquals(3, resultList.resourceList().size());
+    assertEquals(3, resultList.totalCount());
+
+    PersonDTO first = resultList.resourceList().getFirst().getDto();
+    assertEquals("projection test name 2", first.getName());
+    assertNotNull(first.getUuid());
+    // not part of the sparse fieldset so not loaded
+    assertNull(first.getRoom());
+  }
+
   @Test
   public void findAll_fiqlFilter_returnExpectedRecord() {
 
@@ -354,7 +640,109 @@ public class DinaRepositoryV2IT {
         .build()).build();
     repositoryV2.handleUpdate(docToUpdate, assignedId);
   }
-  
+
+  @Test
+  public void onUpdate_toManyRelationshipWithUnknownId_exception() throws Exception {
+
+    PersonDTO personDto = PersonDTO.builder()
+      .name("Bob Unknown Rel")
+      .build();
+
+    JsonApiDocument doc = JsonApiDocuments.createJsonApiDocument(null, PersonDTO.TYPE_NAME,
+      JsonAPITestHelper.toAttributeMap(personDto));
+    var created = repositoryV2.handleCreate(doc, null);
+    UUID assignedId = JsonApiModelAssistant.extractUUIDFromRepresentationModelLink(created);
+
+    UUID unknownId = UUID.randomUUID();
+    JsonApiDocument docToUpdate =
+      JsonApiDocument.builder().data(JsonApiDocument.ResourceObject.builder()
+        .id(assignedId)
+        .type(PersonDTO.TYPE_NAME)
+        .relationships(
+          Map.of("departmentsHeadBackup", JsonApiDocument.RelationshipObject.builder()
+            .data(List.of(JsonApiDocument.ResourceIdentifier.builder()
+              .type(DepartmentDto.TYPE_NAME).id(unknownId).build())).build()))
+        .build()).build();
+
+    IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+      () -> repositoryV2.handleUpdate(docToUpdate, assignedId));
+    assertTrue(ex.getMessage().contains(unknownId.toString()));
+  }
+
+  @Test
+  public void createAll_multipleDocuments_orderKeptAndGeneratedValuesReturned() {
+    DinaRepositoryV2<ChainTemplateDto, ChainTemplate> chainTemplateRepo = newChainTemplateRepository();
+
+    List<String> groups = List.of("group3", "group1", "group2");
+    List<JsonApiDocument> docs = new ArrayList<>();
+    for (String group : groups) {
+      docs.add(JsonApiDocuments.createJsonApiDocument(null, ChainTemplateDto.TYPENAME,
+        Map.of("name", "createAll_" + group, "group", group)));
+    }
+
+    List<JsonApiDto<ChainTemplateDto>> created = chainTemplateRepo.createAll(docs, null);
+
+    assertEquals(groups, created.stream().map(dto -> dto.getDto().getGroup()).toList());
+    for (JsonApiDto<ChainTemplateDto> dto : created) {
+      // uuid set by the service, createdOn set by the database
+      assertNotNull(dto.getDto().getUuid());
+      assertNotNull(dto.getDto().getCreatedOn());
+    }
+    assertEquals(3, created.stream().map(dto -> dto.getDto().getUuid()).distinct().count());
+  }
+
+  @Test
+  public void create_databaseDefaultValue_valueReturned() {
+    DinaRepositoryV2<ChainTemplateDto, ChainTemplate> chainTemplateRepo = newChainTemplateRepository();
+
+    JsonApiDocument doc = JsonApiDocuments.createJsonApiDocument(null, ChainTemplateDto.TYPENAME,
+      Map.of("name", "create_databaseDefaultValue_valueReturned"));
+
+    // createdOn is not insertable, it is set by the default value of the column
+    JsonApiDto<ChainTemplateDto> created = chainTemplateRepo.create(doc, null);
+    assertNotNull(created.getDto().getUuid());
+    assertNotNull(created.getDto().getCreatedOn());
+  }
+
+  /**
+   * Repository of {@link Person} with the provided settings instead of the defaults.
+   */
+  private DinaRepositoryV2<PersonDTO, Person> newPersonRepository(
+    DinaRepositoryV2.TotalCountMode totalCountMode, boolean queryPlanCacheEnabled,
+    boolean sparseFieldsetProjectionEnabled) {
+    return new DinaRepositoryV2<>(personService, new AllowAllAuthorizationService(), Optional.empty(),
+      PersonMapper.INSTANCE, PersonDTO.class, Person.class, buildProperties, objMapper) {
+      @Override
+      protected TotalCountMode getTotalCountMode() {
+        return totalCountMode;
+      }
+
+      @Override
+      protected boolean isQueryPlanCacheEnabled() {
+        return queryPlanCacheEnabled;
+      }
+
+      @Override
+      protected boolean isSparseFieldsetProjectionEnabled() {
+        return sparseFieldsetProjectionEnabled;
+      }
+    };
+  }
+
+  /**
+   * Repository of {@link ChainTemplate}, an entity with a value set by the database (createdOn).
+   */
+  private DinaRepositoryV2<ChainTemplateDto, ChainTemplate> newChainTemplateRepository() {
+    DinaService<ChainTemplate> chainTemplateService = new DefaultDinaService<>(baseDAO, validator) {
+      @Override
+      protected void preCreate(ChainTemplate entity) {
+        entity.setUuid(UUID.randomUUID());
+      }
+    };
+    return new DinaRepositoryV2<>(chainTemplateService, new AllowAllAuthorizationService(), Optional.empty(),
+      ChainTemplateMapper.INSTANCE, ChainTemplateDto.class, ChainTemplate.class, buildProperties, objMapper);
+  }
+
   @Test
   public void onBulk_noException() throws Exception {
     PersonDTO personDto1 = PersonDTO.builder()
@@ -492,6 +880,113 @@ public class DinaRepositoryV2IT {
     assertNotNull(loadedDocs.get("errors"));
   }
 
+  @Test
+  public void onBulkUpdateNonExisting_NotFoundError() throws Exception {
+    PersonDTO personDto1 = PersonDTO.builder()
+      .name("Bob test onBulkUpdateNonExisting_NotFoundError")
+      .build();
+    JsonApiDocument doc1 = JsonApiDocuments.createJsonApiDocument(null, PersonDTO.TYPE_NAME,
+      JsonAPITestHelper.toAttributeMap(personDto1));
+    UUID assignedId = JsonApiModelAssistant.extractUUIDFromRepresentationModelLink(
+      repositoryV2.handleCreate(doc1, null));
+
+    var bulkUpdateDocument = JsonApiBulkDocument.builder();
+    for (UUID uuid : List.of(assignedId, UUID.randomUUID(), UUID.randomUUID())) {
+      bulkUpdateDocument.addData(JsonApiDocument.ResourceObject.builder()
+        .id(uuid)
+        .type(PersonDTO.TYPE_NAME)
+        .attributes(Map.of("name", "updated"))
+        .build());
+    }
+
+    var response = mockMvc.perform(
+        patch("/" + RepoV2TestConfig.PATH + "/" + DinaRepositoryV2.JSON_API_BULK_PATH)
+          .contentType(DinaRepositoryV2.JSON_API_BULK)
+          .content(objMapper.writeValueAsString(bulkUpdateDocument.build())))
+      .andExpect(status().isNotFound())
+      .andReturn();
+
+    Map<String, Object> errorDoc = objMapper.readValue(response.getResponse().getContentAsString(),
+      IT_OM_TYPE_REF);
+    assertEquals(2, ((List<?>) errorDoc.get("errors")).size());
+  }
+
+  @Test
+  public void onBulkLoad_orderPreserved() throws Exception {
+
+    List<UUID> assignedIds = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      PersonDTO personDto = PersonDTO.builder()
+        .name("Bob test onBulkLoad_orderPreserved " + i)
+        .build();
+      JsonApiDocument doc = JsonApiDocuments.createJsonApiDocument(null, PersonDTO.TYPE_NAME,
+        JsonAPITestHelper.toAttributeMap(personDto));
+      assignedIds.add(JsonApiModelAssistant.extractUUIDFromRepresentationModelLink(
+        repositoryV2.handleCreate(doc, null)));
+    }
+
+    // request them in reverse order
+    List<UUID> requestedIds = new ArrayList<>(assignedIds);
+    Collections.reverse(requestedIds);
+
+    var bulkLoadDocument = JsonApiBulkResourceIdentifierDocument.builder();
+    for (UUID uuid : requestedIds) {
+      bulkLoadDocument.addData(JsonApiDocument.ResourceIdentifier.builder()
+        .type(PersonDTO.TYPE_NAME)
+        .id(uuid)
+        .build());
+    }
+
+    var response = mockMvc.perform(
+        post("/" + RepoV2TestConfig.PATH + "/" + DinaRepositoryV2.JSON_API_BULK_LOAD_PATH)
+          .contentType(DinaRepositoryV2.JSON_API_BULK)
+          .content(objMapper.writeValueAsString(bulkLoadDocument.build())))
+      .andExpect(status().isOk())
+      .andReturn();
+
+    JsonApiBulkDocument loadedDocs = objMapper.readValue(response.getResponse().getContentAsString(),
+      JsonApiBulkDocument.class);
+    assertEquals(requestedIds, loadedDocs.getData().stream()
+      .map(JsonApiDocument.ResourceObject::getId).toList());
+  }
+
+  @Test
+  public void onCreateUpdate_returnMinimal_noBodyReturned() throws Exception {
+    PersonDTO personDto = PersonDTO.builder()
+      .name("Bob test returnMinimal")
+      .build();
+    JsonApiDocument doc = JsonApiDocuments.createJsonApiDocument(null, PersonDTO.TYPE_NAME,
+      JsonAPITestHelper.toAttributeMap(personDto));
+
+    var createResponse = mockMvc.perform(
+        post("/" + RepoV2TestConfig.PATH)
+          .contentType(JSON_API_VALUE)
+          .header(DinaRepositoryV2.PREFER_HEADER_KEY, DinaRepositoryV2.PREFER_RETURN_MINIMAL)
+          .content(objMapper.writeValueAsString(doc)))
+      .andExpect(status().isCreated())
+      .andReturn();
+
+    String location = createResponse.getResponse().getHeader("Location");
+    assertNotNull(location);
+    assertTrue(StringUtils.isBlank(createResponse.getResponse().getContentAsString()));
+
+    UUID assignedId = UUID.fromString(StringUtils.substringAfterLast(location, "/"));
+    JsonApiDocument patchDoc = JsonApiDocuments.createJsonApiDocument(assignedId, PersonDTO.TYPE_NAME,
+      Map.of("name", "Bob test returnMinimal updated"));
+
+    var updateResponse = mockMvc.perform(
+        patch("/" + RepoV2TestConfig.PATH + "/" + assignedId)
+          .contentType(JSON_API_VALUE)
+          .header(DinaRepositoryV2.PREFER_HEADER_KEY, DinaRepositoryV2.PREFER_RETURN_MINIMAL)
+          .content(objMapper.writeValueAsString(patchDoc)))
+      .andExpect(status().isNoContent())
+      .andReturn();
+    assertTrue(StringUtils.isBlank(updateResponse.getResponse().getContentAsString()));
+
+    assertEquals("Bob test returnMinimal updated",
+      repositoryV2.getOne(assignedId, null).getDto().getName());
+  }
+
   @Test
   public void onApiInfo_infoReturned() throws Exception {
     var response = mockMvc.perform(
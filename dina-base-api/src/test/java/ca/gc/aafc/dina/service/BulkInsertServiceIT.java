@@ -0,0 +1,106 @@
+package ca.gc.aafc.dina.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolationException;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.validation.SmartValidator;
+
+import ca.gc.aafc.dina.TestDinaBaseApp;
+import ca.gc.aafc.dina.entity.Department;
+import ca.gc.aafc.dina.entity.Sample;
+import ca.gc.aafc.dina.jpa.BaseDAO;
+import ca.gc.aafc.dina.testsupport.PostgresTestContainerInitializer;
+
+@Transactional
+@SpringBootTest(classes = TestDinaBaseApp.class)
+@ContextConfiguration(initializers = { PostgresTestContainerInitializer.class })
+public class BulkInsertServiceIT {
+
+  @Inject
+  private BaseDAO baseDAO;
+
+  @Inject
+  private DefaultDinaServiceTest.DinaServiceTestImplementation dinaService;
+
+  @Inject
+  private SmartValidator validator;
+
+  @Test
+  public void insertAll_ValidEntities_EntitiesInsertedNotManaged() {
+    BulkInsertService<Department> bulkInsertService = new BulkInsertService<>(baseDAO, dinaService, 2);
+
+    List<Department> departments = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      departments.add(Department.builder()
+        .name(RandomStringUtils.randomAlphabetic(5))
+        .location(RandomStringUtils.randomAlphabetic(5))
+        .build());
+    }
+
+    List<BulkInsertService.InsertedIdentifier> identifiers = bulkInsertService.insertAll(departments);
+    assertEquals(5, identifiers.size());
+
+    for (int i = 0; i < 5; i++) {
+      // uuid is set by DinaServiceTestImplementation preCreate
+      Department department = departments.get(i);
+      assertNotNull(identifiers.get(i).id());
+      assertEquals(department.getUuid(), identifiers.get(i).uuid());
+      assertFalse(baseDAO.<Boolean>createWithEntityManager(em -> em.contains(department)));
+
+      Department reloaded = dinaService.findOne(identifiers.get(i).uuid(), Department.class);
+      assertEquals(department.getName(), reloaded.getName());
+    }
+  }
+
+  @Test
+  public void insertAll_SequenceIdEntities_LastBatchInserted() {
+    DefaultDinaService<Sample> sampleService = new DefaultDinaService<>(baseDAO, validator) {
+      @Override
+      protected void preCreate(Sample entity) {
+        entity.setUuid(UUID.randomUUID());
+      }
+    };
+    // 5 entities with a batch size of 2, the last one is still in the JDBC batch when the session is closed
+    BulkInsertService<Sample> bulkInsertService = new BulkInsertService<>(baseDAO, sampleService, 2);
+
+    List<Sample> samples = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      samples.add(Sample.builder().name(RandomStringUtils.randomAlphabetic(5)).build());
+    }
+
+    List<BulkInsertService.InsertedIdentifier> identifiers = bulkInsertService.insertAll(samples);
+    assertEquals(5, identifiers.size());
+
+    for (int i = 0; i < 5; i++) {
+      assertNotNull(identifiers.get(i).id());
+      Sample reloaded = sampleService.findOne(identifiers.get(i).uuid(), Sample.class);
+      assertNotNull(reloaded);
+      assertEquals(samples.get(i).getName(), reloaded.getName());
+    }
+  }
+
+  @Test
+  public void insertAll_InvalidEntity_ExceptionThrown() {
+    BulkInsertService<Department> bulkInsertService = new BulkInsertService<>(baseDAO, dinaService);
+    Department department = Department.builder()
+      .name(RandomStringUtils.randomAlphabetic(51))
+      .location(RandomStringUtils.randomAlphabetic(5))
+      .build();
+
+    assertThrows(ConstraintViolationException.class, () -> bulkInsertService.insertAll(List.of(department)));
+  }
+}
@@ -6,9 +6,11 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
@@ -19,6 +21,8 @@ import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
 import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
@@ -38,7 +42,11 @@ import ca.gc.aafc.dina.entity.Department;
 import ca.gc.aafc.dina.entity.DepartmentType;
 import ca.gc.aafc.dina.jpa.BaseDAO;
 import lombok.NonNull;
+import org.springframework.orm.jpa.EntityManagerHolder;
 import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.validation.SmartValidator;
 import org.springframework.validation.Validator;
 import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
@@ -51,6 +59,15 @@ public class DefaultDinaServiceTest {
   @Inject
   private DinaServiceTestImplementation serviceUnderTest;
 
+  @Inject
+  private BaseDAO baseDAO;
+
+  @Inject
+  private EntityManagerFactory entityManagerFactory;
+
+  @Inject
+  private PlatformTransactionManager transactionManager;
+
   @Test
   public void create_ValidEntity_EntityPersists() {
     Department result = persistDepartment();
@@ -86,6 +103,50 @@ public class DefaultDinaServiceTest {
     assertEquals(expectedLocation, result.getLocation());
   }
 
+  @Test
+  public void updateWithoutFlush_ValidInput_EntityUpdatedOnFlush() {
+    String expectedName = RandomStringUtils.randomAlphabetic(5);
+
+    Department expected = persistDepartment();
+    serviceUnderTest.flush();
+
+    expected.setName(expectedName);
+    assertSame(expected, serviceUnderTest.updateWithoutFlush(expected));
+
+    // managed entity, the change is only sent on flush
+    serviceUnderTest.flush();
+    serviceUnderTest.clear();
+
+    Department result = serviceUnderTest.findOne(expected.getUuid(), Department.class);
+    assertEquals(expectedName, result.getName());
+  }
+
+  @Test
+  @Transactional(Transactional.TxType.NOT_SUPPORTED)
+  public void update_OnEntityLoadedOutsideTransaction_EntityUpdated() {
+    TransactionTemplate txTemplate = new TransactionTemplate(transactionManager);
+    Department expected = txTemplate.execute(status -> persistDepartment());
+    String expectedName = RandomStringUtils.randomAlphabetic(6);
+
+    // share the same EntityManager between the calls like open-in-view does
+    EntityManager em = entityManagerFactory.createEntityManager();
+    TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(em));
+    try {
+      Department loaded = serviceUnderTest.findOne(expected.getUuid(), Department.class);
+      loaded.setName(expectedName);
+      txTemplate.executeWithoutResult(status -> serviceUnderTest.update(loaded));
+    } finally {
+      TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+      em.close();
+    }
+
+    txTemplate.executeWithoutResult(status -> {
+      Department result = serviceUnderTest.findOne(expected.getUuid(), Department.class);
+      assertEquals(expectedName, result.getName());
+      serviceUnderTest.delete(result);
+    });
+  }
+
   @Test
   public void delete_ValidInput_EntityDeleted() {
     Department result = persistDepartment();
@@ -140,6 +201,24 @@ public class DefaultDinaServiceTest {
     assertThat(expecteUuids, CoreMatchers.is(resultIds));
   }
 
+  @Test
+  public void findPage_OnUncommittedEntities_UncommittedEntitiesCounted() {
+    String expectedName = RandomStringUtils.randomAlphabetic(6);
+    for (int i = 0; i < 3; i++) {
+      Department dept = createDepartment();
+      dept.setName(expectedName);
+      serviceUnderTest.createAndFlush(dept);
+    }
+
+    EntityPage<Department> page = serviceUnderTest.findPage(Department.class,
+      (cb, root, em) -> new Predicate[] {cb.equal(root.get("name"), expectedName)},
+      null, 0, 2, Set.of(), Set.of(), Duration.ofSeconds(5));
+
+    assertEquals(2, page.entities().size());
+    // the test transaction is read-write so the count runs in it and sees the same entities as the page
+    assertEquals(3L, page.totalCount());
+  }
+
   @Test
   public void findAllWhere_OrderBySupplied_OrdersBy() {
     List<String> names = Arrays.asList("a", "b", "c", "d");
@@ -312,6 +391,48 @@ public class DefaultDinaServiceTest {
 
   }
 
+  @Test
+  public void scroll_OnMultipleChunks_AllEntitiesProcessedAndDetached() {
+    String location = RandomStringUtils.randomAlphabetic(10);
+    for (int i = 0; i < 5; i++) {
+      serviceUnderTest.create(Department.builder()
+        .name("scroll" + i)
+        .location(location)
+        .build());
+    }
+
+    List<Integer> chunkSizes = new ArrayList<>();
+    List<Department> processed = new ArrayList<>();
+    long count = serviceUnderTest.scroll(Department.class,
+      (criteriaBuilder, root, em) -> new Predicate[] {criteriaBuilder.equal(root.get("location"), location)},
+      (criteriaBuilder, root) -> List.of(criteriaBuilder.asc(root.get("name"))), Set.of(), 2,
+      chunk -> {
+        chunkSizes.add(chunk.size());
+        processed.addAll(chunk);
+      });
+
+    assertEquals(5, count);
+    assertEquals(List.of(2, 2, 1), chunkSizes);
+    assertEquals("scroll4", processed.getLast().getName());
+    // the persistence context is cleared after each chunk
+    for (Department department : processed) {
+      assertFalse(baseDAO.<Boolean>createWithEntityManager(em -> em.contains(department)));
+    }
+  }
+
+  @Test
+  public void scroll_OnCollectionRelationship_ThrowsIllegalArgumentException() {
+    assertThrows(IllegalArgumentException.class, () -> serviceUnderTest.scroll(Department.class,
+      (criteriaBuilder, root, em) -> null, null, Set.of("employees"), 2, chunk -> { }));
+  }
+
+  @Test
+  public void streamAll_OnCollectionRelationship_ThrowsIllegalArgumentException() {
+    assertThrows(IllegalArgumentException.class, () -> serviceUnderTest.streamAll(
+      serviceUnderTest.buildCriteriaQuery(Department.class, (criteriaBuilder, root, em) -> null, null),
+      0, 10, Set.of("employees"), 10));
+  }
+
   private static Department createLongNameDepartment() {
     return Department
       .builder()
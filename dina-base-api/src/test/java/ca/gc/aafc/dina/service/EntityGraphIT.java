@@ -0,0 +1,115 @@
+package ca.gc.aafc.dina.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.transaction.Transactional;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ContextConfiguration;
+
+import ca.gc.aafc.dina.TestDinaBaseApp;
+import ca.gc.aafc.dina.entity.Department;
+import ca.gc.aafc.dina.entity.Employee;
+import ca.gc.aafc.dina.entity.Person;
+import ca.gc.aafc.dina.jpa.BaseDAO;
+import ca.gc.aafc.dina.testsupport.PostgresTestContainerInitializer;
+
+/**
+ * Makes sure the relationships (including nested ones) are loaded by the findAll query itself.
+ */
+@Transactional
+@SpringBootTest(classes = TestDinaBaseApp.class,
+  properties = "spring.jpa.properties.hibernate.generate_statistics = true")
+@ContextConfiguration(initializers = { PostgresTestContainerInitializer.class })
+public class EntityGraphIT {
+
+  private static final Set<String> NESTED_RELATIONSHIPS = Set.of("department.departmentHead.department",
+    "manager");
+
+  @Inject
+  private BaseDAO baseDAO;
+
+  @Inject
+  private DefaultDinaServiceTest.DinaServiceTestImplementation dinaService;
+
+  @Inject
+  private EntityManagerFactory entityManagerFactory;
+
+  private String jobName;
+  private String headDepartmentName;
+
+  @BeforeEach
+  public void setup() {
+    jobName = RandomStringUtils.randomAlphabetic(8);
+    headDepartmentName = RandomStringUtils.randomAlphabetic(8);
+
+    Department headDepartment = newDepartment(headDepartmentName);
+    baseDAO.create(headDepartment);
+    Person head = Person.builder().uuid(UUID.randomUUID()).name("head").department(headDepartment).build();
+    baseDAO.create(head);
+
+    Department department = newDepartment(RandomStringUtils.randomAlphabetic(8));
+    department.setDepartmentHead(head);
+    baseDAO.create(department);
+
+    for (int i = 0; i < 3; i++) {
+      baseDAO.create(Employee.builder().uuid(UUID.randomUUID()).name(RandomStringUtils.randomAlphabetic(10))
+        .job(jobName).department(department).manager(head).build());
+    }
+    baseDAO.flush();
+    baseDAO.clear();
+  }
+
+  @Test
+  public void findAll_onNestedRelationships_loadedInOneStatement() {
+    Statistics statistics = getStatistics();
+    long statementCount = statistics.getPrepareStatementCount();
+
+    List<Employee> employees = dinaService.findAll(Employee.class,
+      (cb, root, em) -> new Predicate[] {cb.equal(root.get("job"), jobName)},
+      null, 0, 10, Set.of(), NESTED_RELATIONSHIPS);
+
+    assertLoaded(employees);
+    assertEquals(statementCount + 1, statistics.getPrepareStatementCount());
+  }
+
+  @Test
+  public void findAllFiql_onNestedRelationships_loadedInOneStatement() {
+    Statistics statistics = getStatistics();
+    long statementCount = statistics.getPrepareStatementCount();
+
+    List<Employee> employees = dinaService.findAll(Employee.class, "job==" + jobName,
+      null, 0, 10, Set.of(), NESTED_RELATIONSHIPS);
+
+    assertLoaded(employees);
+    assertEquals(statementCount + 1, statistics.getPrepareStatementCount());
+  }
+
+  private void assertLoaded(List<Employee> employees) {
+    assertEquals(3, employees.size());
+    for (Employee employee : employees) {
+      assertEquals(headDepartmentName, employee.getDepartment().getDepartmentHead().getDepartment().getName());
+      assertEquals("head", employee.getManager().getName());
+    }
+  }
+
+  private Statistics getStatistics() {
+    return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+
+  private static Department newDepartment(String name) {
+    return Department.builder().uuid(UUID.randomUUID()).name(name).location("location").build();
+  }
+}
@@ -22,3 +22,6 @@ ALTER DEFAULT PRIVILEGES FOR USER migration_user IN SCHEMA dina_base GRANT SELEC
 -- By default the PostGIS image will use the public schema so we need to change it
 UPDATE pg_extension SET extrelocatable = TRUE WHERE extname = 'postgis';
 ALTER EXTENSION postgis SET SCHEMA dina_base;
+
+-- pg_trgm is used by the text search indexes (SIMILAR filter)
+CREATE EXTENSION IF NOT EXISTS pg_trgm SCHEMA dina_base;
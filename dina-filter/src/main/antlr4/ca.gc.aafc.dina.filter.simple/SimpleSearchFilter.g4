@@ -14,11 +14,12 @@ optFields: OPT_FIELDS_KW '[' type ']' '=' propertyName ( ',' propertyName )*;
 
 sort: SORT_KW '=' sortPropertyName ( ',' sortPropertyName )*;
 
-page: PAGE_KW '[' ( 'limit' | 'offset' ) ']' '=' pageValue;
+page: PAGE_KW '[' ( 'limit' | 'offset' ) ']' '=' pageValue
+  | PAGE_KW '[' 'after' ']' '=' pageCursor;
 
 include: INCLUDE_KW '=' propertyName ( ',' propertyName )*;
 
-comparison: 'EQ' | 'NEQ' | 'GT' | 'GOE' | 'LT' | 'LOE' | 'LIKE' | 'ILIKE' | 'IN';
+comparison: 'EQ' | 'NEQ' | 'GT' | 'GOE' | 'LT' | 'LOE' | 'LIKE' | 'ILIKE' | 'IN' | 'SIMILAR';
 
 namePart: (ASCII_LETTER|UNDERSCORE)+ (ASCII_LETTER | INT | UNDERSCORE | DOT |
   FIELDS_KW | FILTER_KW | SORT_KW | PAGE_KW | INCLUDE_KW)*;
@@ -44,10 +45,18 @@ attributeAcceptedValue: (
   | SPACE
   | FORWARD_SLASH
   | COLON
-  | FILTER_KW | FIELDS_KW | SORT_KW | PAGE_KW | INCLUDE_KW)+;
+  | FILTER_KW | FIELDS_KW | SORT_KW | PAGE_KW | INCLUDE_KW
+  | keywordValue)+;
+
+// literals of the other rules are matched before ASCII_LETTER by the lexer, they are also accepted as value
+keywordValue: 'limit' | 'offset' | 'after'
+  | 'EQ' | 'NEQ' | 'GT' | 'GOE' | 'LT' | 'LOE' | 'LIKE' | 'ILIKE' | 'IN' | 'SIMILAR';
 
 pageValue: INT;
 
+// opaque (hex encoded) cursor used by page[after]
+pageCursor: (ASCII_LETTER | INT)+;
+
 // Keywords
 FIELDS_KW: 'fields';
 OPT_FIELDS_KW: 'optfields';